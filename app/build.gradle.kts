@@ -35,6 +35,8 @@ android {
     // ✅ Enable JUnit 5 for unit tests
     testOptions {
         unitTests.isIncludeAndroidResources = true
+        // android.util.Log and friends return defaults instead of throwing in JVM tests
+        unitTests.isReturnDefaultValues = true
         unitTests.all {
             it.useJUnitPlatform()
         }
@@ -46,6 +48,7 @@ dependencies {
     implementation(libs.material)
     implementation(libs.activity)
     implementation(libs.constraintlayout)
+    implementation(libs.recyclerview)
     implementation(libs.firebase.auth)
     implementation(libs.firebase.database)
     implementation(platform("com.google.firebase:firebase-bom:33.16.0"))
@@ -16,6 +16,8 @@ import android.widget.Toast;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.Money;
 import com.example.expensetracker.patterns.memento.ExpenseMemento; // Import the Memento class
 
 import java.text.SimpleDateFormat;
@@ -68,9 +70,10 @@ public class AddExpenseActivity extends AppCompatActivity {
             expenseId = intent.getStringExtra("expenseId");
 
             // Create an object with the initial state passed from MainActivity
-            MainActivity.Expense initialState = new MainActivity.Expense(
+            Expense initialState = Expense.ofCents(
+                    expenseId,
                     intent.getStringExtra("description"),
-                    intent.getDoubleExtra("amount", 0),
+                    intent.getLongExtra("amountCents", 0),
                     intent.getStringExtra("category"),
                     intent.getStringExtra("date")
             );
@@ -105,18 +108,18 @@ public class AddExpenseActivity extends AppCompatActivity {
     }
 
     // This method is the "createMemento" part of the pattern.
-    private void saveStateToMemento(MainActivity.Expense expense) {
+    private void saveStateToMemento(Expense expense) {
         // The Caretaker (this activity) saves the memento.
         this.savedStateMemento = new ExpenseMemento(expense);
     }
 
     // This method is the "setMemento" part of the pattern.
-    private void restoreFormFromState(MainActivity.Expense expenseState) {
+    private void restoreFormFromState(Expense expenseState) {
         if (expenseState == null) return;
 
         // Use public getter methods instead of direct private field access
         etDescription.setText(expenseState.getDescription());
-        etAmount.setText(String.valueOf(expenseState.getAmount()));
+        etAmount.setText(Money.toPlainString(expenseState.getAmountCents(), Money.DEFAULT_CURRENCY));
         tvSelectedDate.setText(expenseState.getDate());
 
         // Set the spinner to the correct category
@@ -165,9 +168,10 @@ public class AddExpenseActivity extends AppCompatActivity {
             return;
         }
 
-        double amount;
+        // Parsed straight to cents so the amount is never rounded through a double
+        long amountCents;
         try {
-            amount = Double.parseDouble(amountStr);
+            amountCents = Money.parse(amountStr, Money.DEFAULT_CURRENCY, Money.DEFAULT_ROUNDING);
         } catch (NumberFormatException e) {
             etAmount.setError("Invalid amount");
             return;
@@ -175,7 +179,7 @@ public class AddExpenseActivity extends AppCompatActivity {
 
         Intent resultIntent = new Intent();
         resultIntent.putExtra("description", description);
-        resultIntent.putExtra("amount", amount);
+        resultIntent.putExtra("amountCents", amountCents);
         resultIntent.putExtra("category", category);
         resultIntent.putExtra("date", date);
 
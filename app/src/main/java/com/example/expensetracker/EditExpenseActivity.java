@@ -13,6 +13,8 @@ import android.widget.Toast;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.expensetracker.model.Money;
+
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Locale;
@@ -52,7 +54,7 @@ public class EditExpenseActivity extends AppCompatActivity {
 
         expenseId = intent.getStringExtra("expenseId");
         String description = intent.getStringExtra("description");
-        double amount = intent.getDoubleExtra("amount", 0);
+        long amountCents = intent.getLongExtra("amountCents", 0);
         String category = intent.getStringExtra("category");
         String date = intent.getStringExtra("date");
 
@@ -63,7 +65,7 @@ public class EditExpenseActivity extends AppCompatActivity {
 
         // Set the fields with the data
         etDescription.setText(description);
-        etAmount.setText(String.valueOf(amount));
+        etAmount.setText(Money.toPlainString(amountCents, Money.DEFAULT_CURRENCY));
         etDate.setText(date);
 
         try {
@@ -139,10 +141,10 @@ public class EditExpenseActivity extends AppCompatActivity {
             etAmount.requestFocus();
             return;
         }
-        double amount;
+        long amountCents;
         try {
-            amount = Double.parseDouble(amountStr);
-            if (amount <= 0) {
+            amountCents = Money.parse(amountStr, Money.DEFAULT_CURRENCY, Money.DEFAULT_ROUNDING);
+            if (amountCents <= 0) {
                 etAmount.setError("Amount must be greater than zero");
                 etAmount.requestFocus();
                 return;
@@ -158,7 +160,7 @@ public class EditExpenseActivity extends AppCompatActivity {
         Intent resultIntent = new Intent();
         resultIntent.putExtra("expenseId", expenseId);
         resultIntent.putExtra("description", description);
-        resultIntent.putExtra("amount", amount);
+        resultIntent.putExtra("amountCents", amountCents);
         resultIntent.putExtra("category", category);
         resultIntent.putExtra("date", date);
         setResult(RESULT_OK, resultIntent);
@@ -0,0 +1,103 @@
+package com.example.expensetracker;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.expensetracker.analytics.CategoryDictionary;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.Money;
+
+/**
+ * Recycling adapter for the expense list on the main screen.
+ * Rows are bound through cached view holders, and each submitted snapshot is
+ * diffed against the previous one on a background thread (ListAdapter/AsyncListDiffer),
+ * so only the rows that actually changed are rebound.
+ */
+public class ExpenseListAdapter extends ListAdapter<MainActivity.ExpenseItem, ExpenseListAdapter.ExpenseViewHolder> {
+
+    public interface OnExpenseActionListener {
+        void onEditExpense(MainActivity.ExpenseItem item);
+        void onDeleteExpense(MainActivity.ExpenseItem item);
+    }
+
+    // Same row = same expense ID; rebound only if the immutable Expense differs
+    static final DiffUtil.ItemCallback<MainActivity.ExpenseItem> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<MainActivity.ExpenseItem>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull MainActivity.ExpenseItem oldItem, @NonNull MainActivity.ExpenseItem newItem) {
+                    return oldItem.id.equals(newItem.id);
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull MainActivity.ExpenseItem oldItem, @NonNull MainActivity.ExpenseItem newItem) {
+                    return oldItem.expense.equals(newItem.expense);
+                }
+            };
+
+    private final OnExpenseActionListener listener;
+
+    public ExpenseListAdapter(OnExpenseActionListener listener) {
+        super(DIFF_CALLBACK);
+        this.listener = listener;
+    }
+
+    @NonNull
+    @Override
+    public ExpenseViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_expense, parent, false);
+        return new ExpenseViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ExpenseViewHolder holder, int position) {
+        holder.bind(getItem(position));
+    }
+
+    class ExpenseViewHolder extends RecyclerView.ViewHolder {
+        private final TextView tvDescription;
+        private final TextView tvCategory;
+        private final TextView tvDate;
+        private final TextView tvAmount;
+
+        ExpenseViewHolder(@NonNull View itemView) {
+            super(itemView);
+            // findViewById runs once per recycled view, not once per row
+            tvDescription = itemView.findViewById(R.id.tv_description);
+            tvCategory = itemView.findViewById(R.id.tv_category);
+            tvDate = itemView.findViewById(R.id.tv_date);
+            tvAmount = itemView.findViewById(R.id.tv_amount);
+            Button btnEdit = itemView.findViewById(R.id.btn_edit);
+            Button btnDelete = itemView.findViewById(R.id.btn_delete);
+
+            btnEdit.setOnClickListener(v -> {
+                int position = getBindingAdapterPosition();
+                if (position != RecyclerView.NO_POSITION) {
+                    listener.onEditExpense(getItem(position));
+                }
+            });
+            btnDelete.setOnClickListener(v -> {
+                int position = getBindingAdapterPosition();
+                if (position != RecyclerView.NO_POSITION) {
+                    listener.onDeleteExpense(getItem(position));
+                }
+            });
+        }
+
+        void bind(MainActivity.ExpenseItem item) {
+            Expense expense = item.expense;
+            tvDescription.setText(expense.getDescription());
+            tvCategory.setText(expense.getCategory());
+            tvDate.setText(expense.getDate());
+            tvAmount.setText(Money.format(expense.getAmountCents(), Money.DEFAULT_CURRENCY));
+            tvCategory.setBackgroundColor(CategoryDictionary.getInstance().colorOf(expense.getCategoryId()));
+        }
+    }
+}
@@ -5,57 +5,88 @@ import android.content.Intent;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.View;
-import android.widget.Button;
-import android.widget.LinearLayout;
 import android.widget.PopupMenu;
 import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 // imports from your project
 import com.example.expensetracker.patterns.strategy.CategoryExpenseStrategy;
-// __FACTORY PATTERN START__: Import the factory classes.
-import com.example.expensetracker.patterns.factory.ConcreteExpenseFactory;
-import com.example.expensetracker.patterns.factory.ExpenseComponentFactory;
-// __FACTORY PATTERN END__
+import com.example.expensetracker.patterns.command.AddExpenseCommand;
+import com.example.expensetracker.patterns.command.Command;
+import com.example.expensetracker.patterns.command.CommandInvoker;
+import com.example.expensetracker.patterns.command.DeleteExpenseCommand;
+import com.example.expensetracker.patterns.command.EditExpenseCommand;
+import com.example.expensetracker.patterns.command.ExpenseReceiver;
 import com.example.expensetracker.patterns.strategy.DailyExpenseStrategy;
 import com.example.expensetracker.patterns.facade.ExpenseAnalysisFacade;
-import com.example.expensetracker.patterns.strategy.ExpenseCalculatorContext;
+import com.example.expensetracker.analytics.CategoryDictionary;
+import com.example.expensetracker.analytics.ExpenseAggregates;
+import com.example.expensetracker.analytics.ExpenseColumns;
+import com.example.expensetracker.analytics.RunningTotals;
+import com.example.expensetracker.patterns.strategy.ExpenseCalculationStrategy;
 import com.example.expensetracker.patterns.composite.ExpenseComponent;
-import com.example.expensetracker.patterns.composite.ExpenseGroup;
-import com.example.expensetracker.patterns.observer.ExpenseObserver;
+import com.example.expensetracker.patterns.composite.ExpenseHierarchy;
+import com.example.expensetracker.patterns.observer.ExpenseChangeObserver;
+import com.example.expensetracker.patterns.observer.ExpenseChangeSet;
 import com.example.expensetracker.patterns.observer.ExpenseRepository;
+import com.example.expensetracker.patterns.observer.ExpenseSnapshot;
+import com.example.expensetracker.data.EpochDays;
+import com.example.expensetracker.data.ExpenseWriteBatch;
+import com.example.expensetracker.data.FileExpenseStore;
+import com.example.expensetracker.data.FirebaseExpenseBackend;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.Money;
+import com.example.expensetracker.model.MoneyAccumulator;
 import com.example.expensetracker.patterns.strategy.TotalExpenseStrategy;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
+import com.example.expensetracker.patterns.iterator.ColumnarExpenseIterator;
+import com.example.expensetracker.patterns.iterator.ExpenseFilter;
 import com.example.expensetracker.patterns.iterator.ExpenseIterator;
-import com.example.expensetracker.patterns.iterator.ExpenseListIterator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.TreeMap;
 
-public class MainActivity extends AppCompatActivity implements ExpenseObserver {
+public class MainActivity extends AppCompatActivity implements ExpenseChangeObserver {
 
     // Request codes for starting activities
     private static final int REQUEST_CODE_ADD_EXPENSE = 1001;
     private static final int REQUEST_CODE_EDIT_EXPENSE = 1002; // For editing
 
     private TextView tvWelcome, tvTotal;
-    private LinearLayout expenseListContainer;
+    private RecyclerView rvExpenses;
+    private ExpenseListAdapter expenseAdapter;
     private ExpenseAnalysisFacade analysisFacade;
+    // Category/month Composite tree, kept current from change sets
+    private final ExpenseHierarchy expenseHierarchy = new ExpenseHierarchy();
 
     private FirebaseAuth mAuth;
-    private DatabaseReference expenseDbRef;
-
-    private final List<ExpenseItem> expenseList = new ArrayList<>();
+    private ExpenseRepository repository;
+    // Adds, edits and deletes go through the command pipeline: merged, batched and undoable
+    private ExpenseReceiver expenseReceiver;
+    private CommandInvoker commandInvoker;
+    // Message to show once an expense's submitted write is saved; undo and redo have none
+    private final Map<String, String> pendingConfirmations = new HashMap<>();
+
+    // Load the next older page when the last visible row is this close to the end
+    private static final int PAGE_PREFETCH_DISTANCE = 10;
+
+    // Rows keyed by expense ID, newest first (push IDs sort by creation time);
+    // expenseList is the last list handed to the adapter.
+    private final Map<String, ExpenseItem> expenseItemsById = new TreeMap<>(Collections.reverseOrder());
+    private List<ExpenseItem> expenseList = new ArrayList<>();
+    private boolean summaryRefreshScheduled = false;
+    private long lastAppliedVersion = 0;
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
@@ -68,7 +99,31 @@ public class MainActivity extends AppCompatActivity implements ExpenseObserver {
 
         tvWelcome = findViewById(R.id.tv_welcome);
         tvTotal = findViewById(R.id.tv_total);
-        expenseListContainer = findViewById(R.id.expense_list_container);
+        rvExpenses = findViewById(R.id.rv_expenses);
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        rvExpenses.setLayoutManager(layoutManager);
+        rvExpenses.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                // Older expenses are fetched a page at a time as the list nears its end
+                if (dy > 0 && repository != null
+                        && layoutManager.findLastVisibleItemPosition() >= layoutManager.getItemCount() - PAGE_PREFETCH_DISTANCE) {
+                    repository.loadOlderExpenses();
+                }
+            }
+        });
+        expenseAdapter = new ExpenseListAdapter(new ExpenseListAdapter.OnExpenseActionListener() {
+            @Override
+            public void onEditExpense(ExpenseItem item) {
+                editExpense(item);
+            }
+
+            @Override
+            public void onDeleteExpense(ExpenseItem item) {
+                confirmDeleteExpense(item.id);
+            }
+        });
+        rvExpenses.setAdapter(expenseAdapter);
 
 
         mAuth = FirebaseAuth.getInstance();
@@ -79,11 +134,6 @@ public class MainActivity extends AppCompatActivity implements ExpenseObserver {
             return;
         }
 
-        String userId = currentUser.getUid();
-        expenseDbRef = FirebaseDatabase.getInstance().getReference("expenses").child(userId);
-
-
-
         String userName = getUserDisplayName(currentUser);
         tvWelcome.setText("Welcome, " + userName);
 
@@ -95,12 +145,20 @@ public class MainActivity extends AppCompatActivity implements ExpenseObserver {
         TextView tvSettings = findViewById(R.id.tv_settings);
         tvSettings.setOnClickListener(this::showSettingsMenu);
 
-        // 2. Register this activity as an observer
-        ExpenseRepository.getInstance().addObserver(this);
-        // Trigger the load
-        ExpenseRepository.getInstance().loadExpenses();
-
-        loadUserExpensesFromFirebase();
+        // 2. Register this activity as an observer, until it is destroyed
+        repository = ExpenseRepository.getInstance();
+        repository.addChangeObserver(this, this);
+        // Drops the facade's cached figures whenever the data changes
+        repository.addChangeObserver(this, analysisFacade);
+        repository.addChangeObserver(this, expenseHierarchy);
+        if (!repository.isOpen()) {
+            // Render from the on-device copy right away; Firebase reconciles into it in the background
+            String userId = currentUser.getUid();
+            repository.open(FileExpenseStore.forUser(this, userId), FirebaseExpenseBackend.forUser(userId));
+        }
+        expenseReceiver = new ExpenseReceiver(repository);
+        commandInvoker = new CommandInvoker(expenseReceiver);
+        commandInvoker.setResultCallback(this::onWritesSaved);
     }
 
 
@@ -114,134 +172,113 @@ public class MainActivity extends AppCompatActivity implements ExpenseObserver {
 
         // Common data for both adding and editing
         String description = data.getStringExtra("description");
-        double amount = data.getDoubleExtra("amount", 0);
+        long amountCents = data.getLongExtra("amountCents", 0);
         String category = data.getStringExtra("category");
         String date = data.getStringExtra("date");
 
-        Expense expenseData = new Expense(description, amount, category, date);
-
+        // The repository applies the write locally and delivers the delta right away,
+        // so there is no need to reload the whole list here.
         if (requestCode == REQUEST_CODE_ADD_EXPENSE) {
-            // Logic for adding a NEW expense
-            String expenseId = expenseDbRef.push().getKey();
-            if (expenseId != null) {
-                expenseDbRef.child(expenseId).setValue(expenseData)
-                        .addOnSuccessListener(aVoid -> {
-                            loadUserExpensesFromFirebase(); // Reload all data for consistency
-                            Toast.makeText(this, "Expense added!", Toast.LENGTH_SHORT).show();
-                        })
-                        .addOnFailureListener(e ->
-                                Toast.makeText(this, "Failed to save expense", Toast.LENGTH_SHORT).show());
+            // Logic for adding a NEW expense: it is created under a freshly reserved ID
+            String newExpenseId = expenseReceiver.newExpenseId();
+            if (newExpenseId == null) {
+                Toast.makeText(this, "Failed to save expense", Toast.LENGTH_SHORT).show();
+                return;
             }
+            Expense expense = Expense.ofCents(newExpenseId, description, amountCents, category, date);
+            submit(new AddExpenseCommand(expenseReceiver, expense), "Expense added!");
         } else if (requestCode == REQUEST_CODE_EDIT_EXPENSE) {
             // Logic for UPDATING an existing expense
             String expenseIdToUpdate = data.getStringExtra("expenseId");
-            if (expenseIdToUpdate != null) {
-                expenseDbRef.child(expenseIdToUpdate).setValue(expenseData)
-                        .addOnSuccessListener(aVoid -> {
-                            loadUserExpensesFromFirebase(); // Reload all data to show changes
-                            Toast.makeText(this, "Expense updated!", Toast.LENGTH_SHORT).show();
-                        })
-                        .addOnFailureListener(e ->
-                                Toast.makeText(this, "Failed to update expense", Toast.LENGTH_SHORT).show());
-            }
+            if (expenseIdToUpdate == null) return;
+            Expense expense = Expense.ofCents(expenseIdToUpdate, description, amountCents, category, date);
+            submit(new EditExpenseCommand(expenseReceiver, expense), "Expense updated!");
         }
     }
 
+    private void submit(Command command, String confirmation) {
+        pendingConfirmations.put(command.getExpenseId(), confirmation);
+        commandInvoker.submit(command);
+    }
 
-    private void loadUserExpensesFromFirebase() {
-        expenseDbRef.get().addOnCompleteListener(task -> {
-            if (task.isSuccessful()) {
-                expenseList.clear();
-                expenseListContainer.removeAllViews();
-
-                // We can use the Facade to calculate the total for the UI
-                List<Expense> tempExpenseListForStrategy = new ArrayList<>();
+    // Called on the main thread with the results of each batch the pipeline wrote
+    private void onWritesSaved(List<ExpenseWriteBatch.Result> results) {
+        boolean failed = false;
+        String confirmation = null;
+        for (ExpenseWriteBatch.Result result : results) {
+            String message = pendingConfirmations.remove(result.getExpenseId());
+            if (!result.isSuccessful()) {
+                failed = true;
+            } else if (message != null) {
+                confirmation = message;
+            }
+        }
+        if (failed) {
+            Toast.makeText(this, "Failed to save changes", Toast.LENGTH_SHORT).show();
+        } else if (confirmation != null) {
+            Toast.makeText(this, confirmation, Toast.LENGTH_SHORT).show();
+        }
+    }
 
-                for (DataSnapshot snapshot : Objects.requireNonNull(task.getResult()).getChildren()) {
-                    Expense expense = snapshot.getValue(Expense.class);
-                    String expenseId = snapshot.getKey();
-                    if (expense != null && expenseId != null) {
-                        addExpenseToUI(expense, expenseId);
-                        tempExpenseListForStrategy.add(expense);
-                    }
-                }
+    // A burst of child events (e.g. the initial sync) only refreshes the summary once.
+    private void scheduleSummaryRefresh() {
+        if (summaryRefreshScheduled) return;
+        summaryRefreshScheduled = true;
+        tvTotal.post(() -> {
+            summaryRefreshScheduled = false;
+            refreshSummary();
+        });
+    }
 
-                // --- FACADE IMPLEMENTATION ---
+    private void refreshSummary() {
+        List<Expense> expensesOnly = getExpenseList();
 
-                // 1. Use Facade to get the Total for the UI (Replaces manual loop sum)
-                double currentTotal = analysisFacade.calculateTotal(tempExpenseListForStrategy);
-                tvTotal.setText(String.format("$%.2f", currentTotal));
+        // --- FACADE IMPLEMENTATION ---
 
-                List<Expense> expensesOnly = getExpenseList();
+        // 1. One aggregation pass gives every figure below (Replaces one loop per figure)
+        ExpenseAggregates summary = analysisFacade.analyze(expensesOnly);
 
-                // 2. Use Facade to run complex Composite logic
-                analysisFacade.generateCompositeAnalysisLog(expensesOnly);
+        // 2. Use Facade to log the category breakdown
+        analysisFacade.generateCompositeAnalysisLog(summary);
 
-                // 3. Use Facade to run specific Strategy calculations (Logging examples)
-                double foodTotal = analysisFacade.calculateCategoryTotal(expensesOnly, "Food");
-                Log.d("FacadeDemo", "Food Total via Facade: " + foodTotal);
+        // 3. Specific figures come from the same pass (Logging examples)
+        long foodTotalCents = summary.getCategoryTotalCents("Food");
+        Log.d("FacadeDemo", "Food Total via Facade: " + Money.format(foodTotalCents, Money.DEFAULT_CURRENCY));
 
-                // --- ITERATOR PATTERN DEMONSTRATION ---
-                demonstrateIteratorPattern();
-                // -----------------------------
+        // 4. Calendar windows come from the repository's day index, O(log n) each
+        int today = EpochDays.ofMillis(System.currentTimeMillis());
+        RunningTotals runningTotals = repository.getRunningTotals();
+        Log.d("FacadeDemo", "This week: " + Money.format(runningTotals.getWeekTotalCents(today), Money.DEFAULT_CURRENCY)
+                + ", last 30 days: " + Money.format(runningTotals.getRangeTotalCents(today - 29, today), Money.DEFAULT_CURRENCY));
 
-            } else {
-                Toast.makeText(this, "Failed to load expenses", Toast.LENGTH_SHORT).show();
-            }
-        });
+        // --- ITERATOR PATTERN DEMONSTRATION ---
+        demonstrateIteratorPattern(summary.getColumns());
+        // -----------------------------
     }
 
-    private void addExpenseToUI(Expense expense, String expenseId) {
-        View view = getLayoutInflater().inflate(R.layout.item_expense, expenseListContainer, false);
-
-        TextView tvDescription = view.findViewById(R.id.tv_description);
-        TextView tvCategory = view.findViewById(R.id.tv_category);
-        TextView tvDate = view.findViewById(R.id.tv_date);
-        TextView tvAmount = view.findViewById(R.id.tv_amount);
-        Button btnDelete = view.findViewById(R.id.btn_delete);
-        Button btnEdit = view.findViewById(R.id.btn_edit);
-
-        // Use getters for safety and good practice
-        tvDescription.setText(expense.getDescription());
-        tvCategory.setText(expense.getCategory());
-        tvDate.setText(expense.getDate());
-        tvAmount.setText(String.format("$%.2f", expense.getAmount()));
-        setCategoryBackground(tvCategory, expense.getCategory());
-
-        ExpenseItem expenseItem = new ExpenseItem(expense, view, expenseId);
-        expenseList.add(expenseItem);
-
-        btnEdit.setOnClickListener(v -> {
-            Intent intent = new Intent(MainActivity.this, AddExpenseActivity.class);
-            intent.putExtra("isEditMode", true);
-            intent.putExtra("expenseId", expenseId);
-            intent.putExtra("description", expense.getDescription());
-            intent.putExtra("amount", expense.getAmount());
-            intent.putExtra("category", expense.getCategory());
-            intent.putExtra("date", expense.getDate());
-            startActivityForResult(intent, REQUEST_CODE_EDIT_EXPENSE);
-        });
-
-        btnDelete.setOnClickListener(v -> {
-            new AlertDialog.Builder(this)
-                    .setTitle("Delete Expense")
-                    .setMessage("Are you sure you want to delete this expense?")
-                    .setPositiveButton("Delete", (dialog, which) -> deleteExpense(expenseId))
-                    .setNegativeButton("Cancel", null)
-                    .show();
-        });
+    private void editExpense(ExpenseItem item) {
+        Expense expense = item.expense;
+        Intent intent = new Intent(MainActivity.this, AddExpenseActivity.class);
+        intent.putExtra("isEditMode", true);
+        intent.putExtra("expenseId", item.id);
+        intent.putExtra("description", expense.getDescription());
+        intent.putExtra("amountCents", expense.getAmountCents());
+        intent.putExtra("category", expense.getCategory());
+        intent.putExtra("date", expense.getDate());
+        startActivityForResult(intent, REQUEST_CODE_EDIT_EXPENSE);
+    }
 
-        expenseListContainer.addView(view);
+    private void confirmDeleteExpense(String expenseId) {
+        new AlertDialog.Builder(this)
+                .setTitle("Delete Expense")
+                .setMessage("Are you sure you want to delete this expense?")
+                .setPositiveButton("Delete", (dialog, which) -> deleteExpense(expenseId))
+                .setNegativeButton("Cancel", null)
+                .show();
     }
 
     private void deleteExpense(String expenseId) {
-        if (expenseId == null) return;
-        expenseDbRef.child(expenseId).removeValue()
-                .addOnSuccessListener(aVoid -> {
-                    loadUserExpensesFromFirebase(); // Reload to update UI and totals
-                    Toast.makeText(this, "Expense deleted", Toast.LENGTH_SHORT).show();
-                })
-                .addOnFailureListener(e -> Toast.makeText(this, "Failed to delete expense", Toast.LENGTH_SHORT).show());
+        submit(new DeleteExpenseCommand(expenseReceiver, expenseId), "Expense deleted");
     }
 
     public static String getUserDisplayName(FirebaseUser user) {
@@ -254,25 +291,12 @@ public class MainActivity extends AppCompatActivity implements ExpenseObserver {
         }
     }
 
-    private void setCategoryBackground(TextView tvCategory, String category) {
-        if (category == null) category = "other";
-        int color;
-        switch (category.toLowerCase()) {
-            case "food": color = 0xFF10B981; break;
-            case "transport": color = 0xFF3B82F6; break;
-            case "entertainment": color = 0xFFEF4444; break;
-            case "shopping": color = 0xFFF59E0B; break;
-            case "bills": color = 0xFF8B5CF6; break;
-            case "healthcare": color = 0xFFEC4899; break;
-            case "education": color = 0xFF06B6D4; break;
-            default: color = 0xFF6B7280; break;
-        }
-        tvCategory.setBackgroundColor(color);
-    }
-
     private void showSettingsMenu(View anchor) {
         PopupMenu popup = new PopupMenu(this, anchor);
         popup.getMenu().add("About");
+        popup.getMenu().add("Undo").setEnabled(commandInvoker.canUndo());
+        popup.getMenu().add("Redo").setEnabled(commandInvoker.canRedo());
+        popup.getMenu().add("Analysis Log");
         popup.getMenu().add("Delete All Expenses");
         popup.getMenu().add("Logout");
 
@@ -284,20 +308,33 @@ public class MainActivity extends AppCompatActivity implements ExpenseObserver {
                         .setMessage("Simple Expense Tracker\nVersion 1.0\nBuilt with ❤")
                         .setPositiveButton("OK", null).show();
                 return true;
+            } else if ("Undo".equals(title)) {
+                commandInvoker.undo();
+                return true;
+            } else if ("Redo".equals(title)) {
+                commandInvoker.redo();
+                return true;
+            } else if ("Analysis Log".equals(title)) {
+                // On demand only: the drill-down and a strategy cache miss each scan the list
+                applyStrategyExample();
+                demonstrateCompositePattern();
+                return true;
             } else if ("Delete All Expenses".equals(title)) {
-                if (expenseList.isEmpty()) {
+                if (expenseItemsById.isEmpty()) {
                     Toast.makeText(this, "No expenses to delete", Toast.LENGTH_SHORT).show();
                     return true;
                 }
                 new AlertDialog.Builder(this)
                         .setTitle("Delete All?")
                         .setMessage("Delete all expenses? This can't be undone.")
-                        .setPositiveButton("Delete All", (d, w) -> {
-                            expenseDbRef.removeValue().addOnSuccessListener(aVoid -> {
-                                loadUserExpensesFromFirebase(); // Reload to show empty state
-                                Toast.makeText(this, "All expenses deleted", Toast.LENGTH_SHORT).show();
-                            });
-                        })
+                        .setPositiveButton("Delete All", (d, w) ->
+                                repository.deleteAllExpenses(error -> {
+                                    if (error == null) {
+                                        // Undo entries would bring deleted expenses back
+                                        commandInvoker.clearHistory();
+                                        Toast.makeText(this, "All expenses deleted", Toast.LENGTH_SHORT).show();
+                                    }
+                                }))
                         .setNegativeButton("Cancel", null).show();
                 return true;
             } else if ("Logout".equals(title)) {
@@ -305,6 +342,7 @@ public class MainActivity extends AppCompatActivity implements ExpenseObserver {
                         .setTitle("Logout")
                         .setMessage("Are you sure?")
                         .setPositiveButton("Logout", (dialog, which) -> {
+                            ExpenseRepository.resetInstance();
                             FirebaseAuth.getInstance().signOut();
                             navigateToLogin();
                         })
@@ -324,42 +362,16 @@ public class MainActivity extends AppCompatActivity implements ExpenseObserver {
     }
 
 
-    public static class Expense {
-        private String description;
-        private String id;
-        private String category; // This is currently private
-        private double amount;
-        private long timestamp;
-        private String date;
-
-        // REQUIRED: empty constructor for Firebase DataSnapshot.getValue(Expense.class)
-        public Expense() {}
-
-        public Expense(String description, double amount, String category, String date) {
-            this.description = description;
-            this.amount = amount;
-            this.category = category;
-            this.date = date;
-        }
-
-        // --- GETTER METHODS ---
-        public String getDescription() { return description; }
-        public double getAmount() { return amount; }
-        public String getCategory() { return category; }
-        public String getDate() { return date; }
-    }
-
     /**
-     * Helper class to hold a reference to an Expense and its corresponding View and ID.
+     * Helper class to hold a reference to an Expense and its ID.
+     * Rows are rendered by ExpenseListAdapter, so items no longer hold on to a View.
      */
     public static class ExpenseItem {
-        public Expense expense;
-        public View view;
-        public String id;
-        public ExpenseItem(Expense expense, View view, String id) {
+        public final Expense expense;
+        public final String id;
+        public ExpenseItem(Expense expense) {
             this.expense = expense;
-            this.view = view;
-            this.id = id;
+            this.id = expense.getId();
         }
     }
 
@@ -373,51 +385,35 @@ public class MainActivity extends AppCompatActivity implements ExpenseObserver {
     }
 
 
+    // Colors are precomputed per category ID; rows bind via Expense.getCategoryId()
     public static int getCategoryColor(String category) {
-        if (category == null) category = "other";
-        switch (category.toLowerCase()) {
-            case "food": return 0xFF10B981;
-            case "transport": return 0xFF3B82F6;
-            case "entertainment": return 0xFFEF4444;
-            case "shopping": return 0xFFF59E0B;
-            case "bills": return 0xFF8B5CF6;
-            case "healthcare": return 0xFFEC4899;
-            case "education": return 0xFF06B6D4;
-            default: return 0xFF6B7280;
-        }
+        return CategoryDictionary.getInstance().colorFor(category);
     }
 
     private void demonstrateCompositePattern() {
-        Log.d("CompositeDemo", "--- Demonstrating Composite Pattern with Factory ---");
+        Log.d("CompositeDemo", "--- Demonstrating Composite Pattern ---");
         if (expenseList.isEmpty()) {
             Log.d("CompositeDemo", "No expenses to group.");
             return;
         }
 
-        // __FACTORY PATTERN START__: Create an instance of the Concrete Factory.
-        ExpenseComponentFactory expenseFactory = new ConcreteExpenseFactory();
-
-        ExpenseComponent allExpensesGroup = new ExpenseGroup("Total Expenses");
-        Map<String, ExpenseGroup> categoryGroups = new HashMap<>();
-
-        for (ExpenseItem item : expenseList) {
-            String category = item.expense.getCategory();
-            ExpenseGroup categoryGroup = categoryGroups.get(category);
-
-            if (categoryGroup == null) {
-                // We still create Groups directly as they are containers
-                categoryGroup = new ExpenseGroup(category);
-                categoryGroups.put(category, categoryGroup);
-                allExpensesGroup.add(categoryGroup);
-            }
-
-            ExpenseComponent singleExpenseLeaf = expenseFactory.createExpenseComponent(item.expense);
+        // The tree is patched from change sets as they arrive, so there is nothing
+        // to build here and every subtotal is a field read
+        ExpenseComponent allExpensesGroup = expenseHierarchy.getRoot();
+        for (ExpenseComponent categoryGroup : allExpensesGroup.getChildren()) {
+            Log.d("CompositeDemo", categoryGroup.getTitle() + " (" + categoryGroup.getCount() + "): "
+                    + Money.format(categoryGroup.getAmountCents(), Money.DEFAULT_CURRENCY));
+        }
 
-            categoryGroup.add(singleExpenseLeaf);
+        // Drill-down by year: only the years are built here; a year's months are
+        // built the first time it is expanded
+        for (ExpenseComponent year : analysisFacade.buildDrillDown(getExpenseList()).getChildren()) {
+            Log.d("CompositeDemo", year.getTitle() + " (" + year.getCount() + "): "
+                    + Money.format(year.getAmountCents(), Money.DEFAULT_CURRENCY));
         }
 
         Log.d("CompositeDemo", "--- Calculating Totals ---");
-        Log.d("CompositeDemo", "GRAND TOTAL (" + allExpensesGroup.getTitle() + "): $" + String.format("%.2f", allExpensesGroup.getAmount()));
+        Log.d("CompositeDemo", "GRAND TOTAL (" + allExpensesGroup.getTitle() + "): " + Money.format(allExpensesGroup.getAmountCents(), Money.DEFAULT_CURRENCY));
         Log.d("CompositeDemo", "------------------------------------------");
     }
 
@@ -428,78 +424,73 @@ public class MainActivity extends AppCompatActivity implements ExpenseObserver {
             return;
         }
 
-        ExpenseCalculatorContext context = new ExpenseCalculatorContext();
-        List<Expense> expensesOnly = getExpenseList();
-
-        context.setStrategy(new TotalExpenseStrategy());
-        double totalAll = context.executeStrategy(expensesOnly);
-        Log.d("StrategyPattern", "Total (All Expenses): $" + totalAll);
-
-        context.setStrategy(new CategoryExpenseStrategy("Food"));
-        double totalFood = context.executeStrategy(expensesOnly);
-        Log.d("StrategyPattern", "Total (Food): $" + totalFood);
-
-        context.setStrategy(new DailyExpenseStrategy("12/08/2025")); // Example date
-        double totalToday = context.executeStrategy(expensesOnly);
-        Log.d("StrategyPattern", "Total for 12/08/2025: $" + totalToday);
+        // Keyed by the snapshot's own version: with coalesced notifications the model
+        // can be ahead of the last change set this activity applied
+        ExpenseSnapshot snapshot = repository.getSnapshot();
+
+        // All three figures come out of a single pass over the list, or out of the
+        // facade's cache if nothing has changed since the last time
+        ExpenseCalculationStrategy total = new TotalExpenseStrategy();
+        ExpenseCalculationStrategy food = new CategoryExpenseStrategy("Food");
+        int todayEpochDay = EpochDays.ofMillis(System.currentTimeMillis());
+        ExpenseCalculationStrategy today = new DailyExpenseStrategy(todayEpochDay);
+        Map<ExpenseCalculationStrategy, Long> totals =
+                analysisFacade.calculateAll(snapshot.getExpenses(), Arrays.asList(total, food, today), snapshot.getVersion());
+
+        Log.d("StrategyPattern", "Total (All Expenses): " + Money.format(totals.get(total), Money.DEFAULT_CURRENCY));
+        Log.d("StrategyPattern", "Total (Food): " + Money.format(totals.get(food), Money.DEFAULT_CURRENCY));
+        Log.d("StrategyPattern", "Total for " + EpochDays.formatMonthDayYear(todayEpochDay) + ": "
+                + Money.format(totals.get(today), Money.DEFAULT_CURRENCY));
+        Log.d("StrategyPattern", "Cache hits: " + analysisFacade.getCacheHits() + ", misses: " + analysisFacade.getCacheMisses());
+        Log.d("Observer", "Change sets delivered: " + repository.getDeliveredNotificationCount()
+                + ", merged: " + repository.getMergedNotificationCount());
         Log.d("StrategyPattern", "------------------------------------");
     }
 
+    // The repository's point-in-time snapshot: unmodifiable, and copied at most once per change
     private List<Expense> getExpenseList() {
-        List<Expense> expenses = new ArrayList<>();
-        for (ExpenseItem item : expenseList) {
-            expenses.add(item.expense);
-        }
-        return expenses;
+        return repository.getExpenses();
     }
     @Override
-    public void onExpensesUpdated(List<Expense> expenses) {
-        // Clear old views
-        expenseList.clear();
-        expenseListContainer.removeAllViews();
-        double currentTotal = 0.0;
-
-        // Rebuild the UI with the new list
-        for (Expense expense : expenses) {
-            // You might need to refactor addExpenseToUI slightly to handle IDs if they aren't in the Expense object
-            // Or fetch IDs alongside data in the Repository
-            addExpenseToUI(expense, "temp_id"); // Ideally, add ID to your Expense model
-            currentTotal += expense.getAmount();
-        }
-
-        tvTotal.setText(String.format("$%.2f", currentTotal));
+    public void onExpensesChanged(ExpenseChangeSet changes) {
         // This method is called by the Observer.
-        // It's a good place for real-time updates that don't require a full UI rebuild.
-        Log.d("Observer", "Expense data has been updated in the repository.");
+        // Skip change sets we have already applied (e.g. the replay on re-registration).
+        if (changes.getVersion() <= lastAppliedVersion) return;
+        lastAppliedVersion = changes.getVersion();
 
-        // For now, we can simply have it call the main Firebase load to ensure consistency.
-        // Or, you can build a more lightweight update logic here.
-        loadUserExpensesFromFirebase();
+        for (String expenseId : changes.getRemoved()) {
+            expenseItemsById.remove(expenseId);
+        }
+        for (Expense expense : changes.getInserted().values()) {
+            expenseItemsById.put(expense.getId(), new ExpenseItem(expense));
+        }
+        for (Expense expense : changes.getUpdated().values()) {
+            // Expenses are immutable, so the adapter can diff the old item against the new one
+            expenseItemsById.put(expense.getId(), new ExpenseItem(expense));
+        }
+        Log.d("Observer", "Applied " + changes);
 
-        Toast.makeText(this, "Expenses updated via Observer!", Toast.LENGTH_SHORT).show();
-    }
+        // The header comes from the repository's running totals, so it is O(1) per change
+        tvTotal.setText(Money.format(repository.getRunningTotals().getTotalCents(), Money.DEFAULT_CURRENCY));
 
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        // 4. Clean up
-        ExpenseRepository.getInstance().removeObserver(this);
-    }
-    public ExpenseIterator createIterator() {
-        // Pass the list to be iterated to the new constructor
-        return new ExpenseListIterator(expenseList);
+        // The adapter diffs this snapshot against the previous one off the main thread
+        expenseList = new ArrayList<>(expenseItemsById.values());
+        expenseAdapter.submitList(expenseList);
+        scheduleSummaryRefresh();
     }
-    private void demonstrateIteratorPattern() {
-        Log.d("IteratorPattern", "--- Demonstrating External Iterator Pattern ---");
-        // Get the iterator using the updated factory method
-        ExpenseIterator iterator = createIterator();
 
-        // Use the iterator to traverse the list
+    private void demonstrateIteratorPattern(ExpenseColumns snapshot) {
+        Log.d("IteratorPattern", "--- Demonstrating External Iterator Pattern ---");
+        // Streams amounts out of the summary's columnar snapshot: the date filter is
+        // applied to the day column and only the amount column is read, so no
+        // expense objects are touched and nothing is logged per row
+        int today = EpochDays.ofMillis(System.currentTimeMillis());
+        ExpenseIterator iterator = new ColumnarExpenseIterator(snapshot, ExpenseFilter.ALL.between(today - 29, today));
+        MoneyAccumulator total = new MoneyAccumulator();
         while (iterator.hasNext()) {
-            ExpenseItem item = iterator.next();
-            // Perform an action on each item
-            Log.d("IteratorPattern", "Iterating over: " + item.expense.getDescription());
+            total.add(iterator.nextAmountCents());
         }
+        Log.d("IteratorPattern", "Last 30 days: " + total.getCount() + " expenses, " + total);
         Log.d("IteratorPattern", "-----------------------------------------");
     }
 }
\ No newline at end of file
@@ -0,0 +1,129 @@
+package com.example.expensetracker.analytics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide dictionary that maps category strings to small integer IDs.
+ * Matching is case-insensitive ("Food", "food" and "FOOD" share one ID), the
+ * folding happens once per distinct spelling, and each ID carries its display
+ * name and precomputed row color. Lookups of a known spelling are a single
+ * lock-free hash probe; new spellings are added under a lock.
+ */
+public final class CategoryDictionary {
+
+    // ID of expenses with no category at all
+    public static final int UNCATEGORIZED = 0;
+    // Returned by find() for a category that has never been interned
+    public static final int NOT_FOUND = -1;
+
+    private static final int DEFAULT_COLOR = 0xFF6B7280;
+
+    private static final CategoryDictionary INSTANCE = new CategoryDictionary();
+
+    public static CategoryDictionary getInstance() {
+        return INSTANCE;
+    }
+
+    // Exact spelling -> ID, filled on first sight of each spelling
+    private final Map<String, Integer> idsBySpelling = new ConcurrentHashMap<>();
+    // Folded key -> ID; guarded by this
+    private final Map<String, Integer> idsByKey = new HashMap<>();
+
+    // Published copy-on-grow, so readers never see an ID past the end
+    private volatile String[] names = new String[8];
+    private volatile int[] colors = new int[8];
+    private volatile int size;
+
+    CategoryDictionary() {
+        names[UNCATEGORIZED] = null;
+        colors[UNCATEGORIZED] = DEFAULT_COLOR;
+        size = 1;
+    }
+
+    /**
+     * The ID for a category, adding it if this is the first time it is seen.
+     */
+    public int intern(String category) {
+        if (category == null) return UNCATEGORIZED;
+        Integer id = idsBySpelling.get(category);
+        return id != null ? id : internSlow(category);
+    }
+
+    private synchronized int internSlow(String category) {
+        String key = fold(category);
+        Integer id = idsByKey.get(key);
+        if (id == null) {
+            id = size;
+            String[] newNames = names;
+            int[] newColors = colors;
+            if (id == newNames.length) {
+                newNames = Arrays.copyOf(newNames, id * 2);
+                newColors = Arrays.copyOf(newColors, id * 2);
+            }
+            newNames[id] = category;
+            newColors[id] = colorForKey(key);
+            colors = newColors;
+            names = newNames;
+            size = id + 1;
+            idsByKey.put(key, id);
+        }
+        idsBySpelling.put(category, id);
+        return id;
+    }
+
+    /**
+     * The ID for a category without adding it; NOT_FOUND if it has never been interned.
+     */
+    public int find(String category) {
+        if (category == null) return UNCATEGORIZED;
+        Integer id = idsBySpelling.get(category);
+        if (id != null) return id;
+        synchronized (this) {
+            id = idsByKey.get(fold(category));
+        }
+        return id != null ? id : NOT_FOUND;
+    }
+
+    // Number of IDs handed out so far; every valid ID is below this
+    public int size() {
+        return size;
+    }
+
+    // Display name: the first spelling that was interned for this ID
+    public String nameOf(int id) {
+        return names[id];
+    }
+
+    public int colorOf(int id) {
+        return colors[id];
+    }
+
+    /**
+     * Row color for an arbitrary category string; does not add it to the dictionary.
+     */
+    public int colorFor(String category) {
+        int id = find(category);
+        return id != NOT_FOUND ? colors[id] : colorForKey(fold(category));
+    }
+
+    private static String fold(String category) {
+        return category.toLowerCase(Locale.ROOT);
+    }
+
+    private static int colorForKey(String key) {
+        switch (key) {
+            case "food": return 0xFF10B981;
+            case "transport": return 0xFF3B82F6;
+            case "entertainment": return 0xFFEF4444;
+            case "shopping": return 0xFFF59E0B;
+            case "bills": return 0xFF8B5CF6;
+            case "healthcare": return 0xFFEC4899;
+            case "education": return 0xFF06B6D4;
+            default: return DEFAULT_COLOR;
+        }
+    }
+}
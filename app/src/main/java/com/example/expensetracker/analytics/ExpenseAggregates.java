@@ -0,0 +1,113 @@
+package com.example.expensetracker.analytics;
+
+import com.example.expensetracker.data.EpochDays;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable result of one ExpenseAggregator pass. Every sum is in cents.
+ */
+public final class ExpenseAggregates {
+    private final ExpenseColumns columns;
+    private final int count;
+    private final long totalCents;
+    private final long minCents;
+    private final long maxCents;
+
+    private final long[] categorySums;
+    private final int[] categoryCounts;
+
+    private final int firstDay;
+    private final long[] daySums;
+    private final int[] dayCounts;
+
+    private final int firstMonth;
+    private final long[] monthSums;
+    private final int[] monthCounts;
+
+    ExpenseAggregates(ExpenseColumns columns, int count, long totalCents, long minCents, long maxCents,
+                      long[] categorySums, int[] categoryCounts,
+                      int firstDay, long[] daySums, int[] dayCounts,
+                      int firstMonth, long[] monthSums, int[] monthCounts) {
+        this.columns = columns;
+        this.count = count;
+        this.totalCents = totalCents;
+        this.minCents = minCents;
+        this.maxCents = maxCents;
+        this.categorySums = categorySums;
+        this.categoryCounts = categoryCounts;
+        this.firstDay = firstDay;
+        this.daySums = daySums;
+        this.dayCounts = dayCounts;
+        this.firstMonth = firstMonth;
+        this.monthSums = monthSums;
+        this.monthCounts = monthCounts;
+    }
+
+    // The snapshot this pass read, for further scans without rebuilding it
+    public ExpenseColumns getColumns() {
+        return columns;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    // 0 when there are no expenses
+    public long getMinCents() {
+        return minCents;
+    }
+
+    public long getMaxCents() {
+        return maxCents;
+    }
+
+    /**
+     * Sum for a category, matched case-insensitively like CategoryExpenseStrategy.
+     */
+    public long getCategoryTotalCents(String category) {
+        int id = CategoryDictionary.getInstance().find(category);
+        return id >= 0 && id < categorySums.length ? categorySums[id] : 0;
+    }
+
+    public int getCategoryCount(String category) {
+        int id = CategoryDictionary.getInstance().find(category);
+        return id >= 0 && id < categoryCounts.length ? categoryCounts[id] : 0;
+    }
+
+    /**
+     * Category name -> sum for every category present, in dictionary (first-seen) order.
+     */
+    public Map<String, Long> getCategoryTotalsCents() {
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (int id = 0; id < categorySums.length; id++) {
+            if (categoryCounts[id] > 0) totals.put(columns.categoryName(id), categorySums[id]);
+        }
+        return totals;
+    }
+
+    public long getDayTotalCents(int epochDay) {
+        int offset = epochDay - firstDay;
+        return offset >= 0 && offset < daySums.length ? daySums[offset] : 0;
+    }
+
+    public int getDayCount(int epochDay) {
+        int offset = epochDay - firstDay;
+        return offset >= 0 && offset < dayCounts.length ? dayCounts[offset] : 0;
+    }
+
+    public long getMonthTotalCents(int year, int month) {
+        int offset = EpochDays.monthIndex(year, month) - firstMonth;
+        return offset >= 0 && offset < monthSums.length ? monthSums[offset] : 0;
+    }
+
+    public int getMonthCount(int year, int month) {
+        int offset = EpochDays.monthIndex(year, month) - firstMonth;
+        return offset >= 0 && offset < monthCounts.length ? monthCounts[offset] : 0;
+    }
+}
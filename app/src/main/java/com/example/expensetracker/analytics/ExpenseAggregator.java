@@ -0,0 +1,74 @@
+package com.example.expensetracker.analytics;
+
+import com.example.expensetracker.data.EpochDays;
+
+/**
+ * Computes every summary figure the app shows (total, count, min, max and
+ * per-category, per-day and per-month sums and counts) in a single linear scan
+ * over ExpenseColumns. Sums are exact: they add the cents column and fail
+ * rather than overflow. The only allocations are the result arrays.
+ */
+public final class ExpenseAggregator {
+
+    // Daily buckets cover at most this many days back from the latest expense;
+    // older rows are still counted in the monthly buckets.
+    static final int MAX_DAY_SPAN = 366 * 10;
+
+    private ExpenseAggregator() {}
+
+    public static ExpenseAggregates aggregate(ExpenseColumns columns) {
+        int size = columns.size();
+        long[] amountCents = columns.amountCents();
+        int[] categoryIds = columns.categoryIds();
+        int[] epochDays = columns.epochDays();
+
+        int categoryCount = columns.categoryCount();
+        long[] categorySums = new long[categoryCount];
+        int[] categoryCounts = new int[categoryCount];
+
+        int minDay = columns.minEpochDay();
+        int maxDay = columns.maxEpochDay();
+        boolean hasDates = minDay != EpochDays.UNKNOWN;
+        int firstDay = hasDates ? Math.max(minDay, maxDay - MAX_DAY_SPAN + 1) : 0;
+        int daySpan = hasDates ? maxDay - firstDay + 1 : 0;
+        long[] daySums = new long[daySpan];
+        int[] dayCounts = new int[daySpan];
+
+        int firstMonth = hasDates ? EpochDays.monthIndex(minDay) : 0;
+        int monthSpan = hasDates ? EpochDays.monthIndex(maxDay) - firstMonth + 1 : 0;
+        long[] monthSums = new long[monthSpan];
+        int[] monthCounts = new int[monthSpan];
+
+        long total = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+
+        for (int i = 0; i < size; i++) {
+            long amount = amountCents[i];
+            total = Math.addExact(total, amount);
+            if (amount < min) min = amount;
+            if (amount > max) max = amount;
+
+            int categoryId = categoryIds[i];
+            categorySums[categoryId] = Math.addExact(categorySums[categoryId], amount);
+            categoryCounts[categoryId]++;
+
+            int day = epochDays[i];
+            if (day == EpochDays.UNKNOWN) continue;
+            int dayOffset = day - firstDay;
+            if (dayOffset >= 0) {
+                daySums[dayOffset] = Math.addExact(daySums[dayOffset], amount);
+                dayCounts[dayOffset]++;
+            }
+            int monthOffset = EpochDays.monthIndex(day) - firstMonth;
+            monthSums[monthOffset] = Math.addExact(monthSums[monthOffset], amount);
+            monthCounts[monthOffset]++;
+        }
+
+        return new ExpenseAggregates(columns, size, total,
+                size == 0 ? 0 : min, size == 0 ? 0 : max,
+                categorySums, categoryCounts,
+                firstDay, daySums, dayCounts,
+                firstMonth, monthSums, monthCounts);
+    }
+}
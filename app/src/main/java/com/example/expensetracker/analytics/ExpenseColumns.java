@@ -0,0 +1,180 @@
+package com.example.expensetracker.analytics;
+
+import com.example.expensetracker.data.EpochDays;
+import com.example.expensetracker.model.Expense;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Column-oriented copy of a list of expenses: amounts in cents, CategoryDictionary IDs
+ * and epoch days in parallel primitive arrays. Built once per snapshot, then
+ * scanned by ExpenseAggregator and ColumnarExpenseIterator without touching
+ * any objects. Per-category posting lists (row indices) are built on first
+ * use for category filters. Rows added from an Expense also keep a reference
+ * to it, for callers that do need the object.
+ */
+public final class ExpenseColumns {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] amountCents;
+    private int[] categoryIds;
+    private int[] epochDays;
+    // Null for rows added from primitive values
+    private Expense[] expenses;
+    private int size;
+    // Bumped by every add(), so iterators can detect a change under them
+    private int modCount;
+
+    // One past the largest category ID present
+    private int categoryCount;
+    // Posting lists in one array: rows of category c are
+    // postingRows[postingStarts[c] .. postingStarts[c + 1]); null until first use
+    private int[] postingStarts;
+    private int[] postingRows;
+
+    private int minEpochDay = Integer.MAX_VALUE;
+    private int maxEpochDay = Integer.MIN_VALUE;
+
+    public ExpenseColumns() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public ExpenseColumns(int capacity) {
+        int initial = Math.max(capacity, 1);
+        amountCents = new long[initial];
+        categoryIds = new int[initial];
+        epochDays = new int[initial];
+        expenses = new Expense[initial];
+    }
+
+    public static ExpenseColumns of(Collection<? extends Expense> expenses) {
+        ExpenseColumns columns = new ExpenseColumns(expenses.size());
+        for (Expense expense : expenses) {
+            columns.add(expense);
+        }
+        return columns;
+    }
+
+    public void add(Expense expense) {
+        add(expense.getAmountCents(), expense.getCategoryId(), expense.getEpochDay(), expense);
+    }
+
+    public void add(long amountCents, String category, int epochDay) {
+        add(amountCents, CategoryDictionary.getInstance().intern(category), epochDay);
+    }
+
+    public void add(long amountCents, int categoryId, int epochDay) {
+        add(amountCents, categoryId, epochDay, null);
+    }
+
+    private void add(long cents, int categoryId, int epochDay, Expense expense) {
+        if (size == amountCents.length) {
+            int capacity = size * 2;
+            amountCents = Arrays.copyOf(amountCents, capacity);
+            expenses = Arrays.copyOf(expenses, capacity);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+        }
+        amountCents[size] = cents;
+        expenses[size] = expense;
+        categoryIds[size] = categoryId;
+        if (categoryId >= categoryCount) categoryCount = categoryId + 1;
+        epochDays[size] = epochDay;
+        if (epochDay != EpochDays.UNKNOWN) {
+            if (epochDay < minEpochDay) minEpochDay = epochDay;
+            if (epochDay > maxEpochDay) maxEpochDay = epochDay;
+        }
+        size++;
+        modCount++;
+        postingStarts = null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int modCount() {
+        return modCount;
+    }
+
+    public long amountCentsAt(int index) {
+        return amountCents[index];
+    }
+
+    // The expense the row was added from, or null if it was added from values
+    public Expense expenseAt(int index) {
+        return expenses[index];
+    }
+
+    public int categoryIdAt(int index) {
+        return categoryIds[index];
+    }
+
+    public int epochDayAt(int index) {
+        return epochDays[index];
+    }
+
+    // Upper bound (exclusive) of the category IDs in these columns
+    public int categoryCount() {
+        return categoryCount;
+    }
+
+    public String categoryName(int categoryId) {
+        return CategoryDictionary.getInstance().nameOf(categoryId);
+    }
+
+    /**
+     * Row indices of one category, ascending. Matching is case-insensitive;
+     * an unknown category gives an empty array.
+     */
+    public int[] rowsInCategory(String category) {
+        return rowsInCategory(CategoryDictionary.getInstance().find(category));
+    }
+
+    public int[] rowsInCategory(int categoryId) {
+        if (categoryId < 0 || categoryId >= categoryCount) return new int[0];
+        if (postingStarts == null) buildPostings();
+        return Arrays.copyOfRange(postingRows, postingStarts[categoryId], postingStarts[categoryId + 1]);
+    }
+
+    // Counting sort of row indices by category: O(rows + categories)
+    private void buildPostings() {
+        int[] starts = new int[categoryCount + 1];
+        for (int i = 0; i < size; i++) {
+            starts[categoryIds[i] + 1]++;
+        }
+        for (int c = 0; c < categoryCount; c++) {
+            starts[c + 1] += starts[c];
+        }
+        int[] next = Arrays.copyOf(starts, categoryCount);
+        int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[next[categoryIds[i]]++] = i;
+        }
+        postingRows = rows;
+        postingStarts = starts;
+    }
+
+    // Smallest known epoch day, or EpochDays.UNKNOWN if no row has a valid date
+    public int minEpochDay() {
+        return size == 0 || maxEpochDay == Integer.MIN_VALUE ? EpochDays.UNKNOWN : minEpochDay;
+    }
+
+    public int maxEpochDay() {
+        return size == 0 || maxEpochDay == Integer.MIN_VALUE ? EpochDays.UNKNOWN : maxEpochDay;
+    }
+
+    // Raw column access for tight loops; only the first size() entries are valid.
+    long[] amountCents() {
+        return amountCents;
+    }
+
+    int[] categoryIds() {
+        return categoryIds;
+    }
+
+    int[] epochDays() {
+        return epochDays;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.expensetracker.analytics;
+
+import com.example.expensetracker.data.EpochDays;
+import com.example.expensetracker.model.Expense;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable index of expense sums by epoch day: a sorted array of distinct days
+ * with prefix sums (in cents) and prefix counts. Any day, week, month or arbitrary
+ * [from, to] range total is two binary searches, O(log n), instead of a scan
+ * with string compares.
+ */
+public final class ExpenseDateIndex {
+    private static final ExpenseDateIndex EMPTY = new ExpenseDateIndex(new int[0], new long[1], new int[1]);
+
+    private final int[] days;          // distinct, ascending
+    private final long[] prefixSums; // prefixSums[i] = cents of all days before days[i]
+    private final int[] prefixCounts;
+
+    private ExpenseDateIndex(int[] days, long[] prefixSums, int[] prefixCounts) {
+        this.days = days;
+        this.prefixSums = prefixSums;
+        this.prefixCounts = prefixCounts;
+    }
+
+    public static ExpenseDateIndex of(Collection<? extends Expense> expenses) {
+        int[] days = new int[expenses.size()];
+        long[] amounts = new long[expenses.size()];
+        int n = 0;
+        for (Expense expense : expenses) {
+            int day = expense.getEpochDay();
+            if (day == EpochDays.UNKNOWN) continue;
+            days[n] = day;
+            amounts[n] = expense.getAmountCents();
+            n++;
+        }
+        return build(days, amounts, null, n);
+    }
+
+    /**
+     * Builds from unsorted (day, sum, count) rows; rows for the same day are merged.
+     * counts may be null, meaning one expense per row.
+     */
+    static ExpenseDateIndex build(int[] days, long[] sums, int[] counts, int n) {
+        if (n == 0) return EMPTY;
+
+        // Sort row indices by day without boxing: day in the high bits, row in the low bits
+        long[] order = new long[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = ((long) days[i] << 32) | i;
+        }
+        Arrays.sort(order);
+
+        int[] sortedDays = new int[n];
+        long[] prefixSums = new long[n + 1];
+        int[] prefixCounts = new int[n + 1];
+        int distinct = 0;
+        for (int k = 0; k < n; k++) {
+            int row = (int) order[k];
+            int day = (int) (order[k] >> 32);
+            if (distinct == 0 || sortedDays[distinct - 1] != day) {
+                sortedDays[distinct] = day;
+                prefixSums[distinct + 1] = prefixSums[distinct];
+                prefixCounts[distinct + 1] = prefixCounts[distinct];
+                distinct++;
+            }
+            prefixSums[distinct] = Math.addExact(prefixSums[distinct], sums[row]);
+            prefixCounts[distinct] += counts == null ? 1 : counts[row];
+        }
+        return new ExpenseDateIndex(
+                Arrays.copyOf(sortedDays, distinct),
+                Arrays.copyOf(prefixSums, distinct + 1),
+                Arrays.copyOf(prefixCounts, distinct + 1));
+    }
+
+    public static ExpenseDateIndex empty() {
+        return EMPTY;
+    }
+
+    // Number of distinct days in the index
+    public int size() {
+        return days.length;
+    }
+
+    /**
+     * Total in cents for fromDay..toDay, both inclusive.
+     */
+    public long sumCentsBetween(int fromDay, int toDay) {
+        if (fromDay > toDay) return 0;
+        return prefixSums[upperBound(toDay)] - prefixSums[lowerBound(fromDay)];
+    }
+
+    public int countBetween(int fromDay, int toDay) {
+        if (fromDay > toDay) return 0;
+        return prefixCounts[upperBound(toDay)] - prefixCounts[lowerBound(fromDay)];
+    }
+
+    public long sumCentsForDay(int epochDay) {
+        return sumCentsBetween(epochDay, epochDay);
+    }
+
+    // Monday-to-Sunday week containing the given day
+    public long sumCentsForWeek(int epochDay) {
+        int monday = EpochDays.startOfWeek(epochDay);
+        return sumCentsBetween(monday, monday + 6);
+    }
+
+    public long sumCentsForMonth(int year, int month) {
+        int first = EpochDays.of(year, month, 1);
+        return sumCentsBetween(first, first + EpochDays.lengthOfMonth(year, month) - 1);
+    }
+
+    // First position whose day is >= value
+    private int lowerBound(int value) {
+        int low = 0;
+        int high = days.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] < value) low = mid + 1; else high = mid;
+        }
+        return low;
+    }
+
+    // First position whose day is > value
+    private int upperBound(int value) {
+        int low = 0;
+        int high = days.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] <= value) low = mid + 1; else high = mid;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.expensetracker.analytics;
+
+import com.example.expensetracker.data.EpochDays;
+import com.example.expensetracker.model.Expense;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Totals by category, calendar day and calendar month that are kept current
+ * as expenses are added, edited and deleted. Each update is O(log D) at most,
+ * so header and dashboard figures never need a pass over the whole history.
+ * Amounts are exact cents, so adding and removing the same expense always
+ * returns a total to exactly what it was. Not thread-safe; the repository updates and reads it on the main thread.
+ */
+public final class RunningTotals {
+
+    // Domain of the day tree: every epoch day EpochDays.parse() can produce (years 0-9999)
+    private static final int FIRST_DAY = EpochDays.of(0, 1, 1);
+    private static final int TREE_SIZE = 1 << 22;
+
+    private static final class Bucket {
+        long sumCents;
+        int count;
+    }
+
+    private long totalCents;
+    private int count;
+    // Indexed by CategoryDictionary ID
+    private long[] categorySums = new long[16];
+    private int[] categoryCounts = new int[16];
+    private final Map<Integer, Bucket> byDay = new HashMap<>();
+    private final Map<Integer, Bucket> byMonth = new HashMap<>();
+    // Sparse Fenwick tree over epoch days, for week and range totals: node -> sum of its
+    // span. Updates and prefix sums each touch at most log2(TREE_SIZE) = 22 nodes, and
+    // only nodes over a day that has expenses are stored.
+    private final Map<Integer, Bucket> dayTree = new HashMap<>();
+
+    public void add(Expense expense) {
+        apply(expense, 1);
+    }
+
+    public void remove(Expense expense) {
+        apply(expense, -1);
+    }
+
+    /**
+     * An edit: takes the previous values out before adding the new ones.
+     */
+    public void replace(Expense previous, Expense updated) {
+        apply(previous, -1);
+        apply(updated, 1);
+    }
+
+    public void clear() {
+        totalCents = 0;
+        count = 0;
+        Arrays.fill(categorySums, 0);
+        Arrays.fill(categoryCounts, 0);
+        byDay.clear();
+        byMonth.clear();
+        dayTree.clear();
+    }
+
+    private void apply(Expense expense, int sign) {
+        long amountCents = sign * expense.getAmountCents();
+        count += sign;
+        totalCents = Math.addExact(totalCents, amountCents);
+
+        int categoryId = expense.getCategoryId();
+        if (categoryId >= categorySums.length) {
+            int capacity = Math.max(categoryId + 1, categorySums.length * 2);
+            categorySums = Arrays.copyOf(categorySums, capacity);
+            categoryCounts = Arrays.copyOf(categoryCounts, capacity);
+        }
+        categoryCounts[categoryId] += sign;
+        categorySums[categoryId] = Math.addExact(categorySums[categoryId], amountCents);
+        int epochDay = expense.getEpochDay();
+        if (epochDay != EpochDays.UNKNOWN) {
+            update(byDay, epochDay, amountCents, sign);
+            update(byMonth, EpochDays.monthIndex(epochDay), amountCents, sign);
+            // Days outside the domain keep their day and month buckets but not range totals
+            for (int node = treeIndex(epochDay); node <= TREE_SIZE; node += node & -node) {
+                update(dayTree, node, amountCents, sign);
+            }
+        }
+    }
+
+    // 1-based tree position of a day; past TREE_SIZE for days outside the domain
+    private static int treeIndex(int epochDay) {
+        return epochDay < FIRST_DAY ? TREE_SIZE + 1 : (int) Math.min(TREE_SIZE + 1L, (long) epochDay - FIRST_DAY + 1);
+    }
+
+    // Cents of every dated expense up to and including the given day
+    private long prefixCents(int epochDay) {
+        if (epochDay < FIRST_DAY) return 0;
+        long sum = 0;
+        for (int node = Math.min(treeIndex(epochDay), TREE_SIZE); node > 0; node -= node & -node) {
+            sum += sum(dayTree.get(node));
+        }
+        return sum;
+    }
+
+    private static <K> void update(Map<K, Bucket> buckets, K key, long amountCents, int sign) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = new Bucket();
+            buckets.put(key, bucket);
+        }
+        bucket.count += sign;
+        bucket.sumCents = Math.addExact(bucket.sumCents, amountCents);
+        if (bucket.count <= 0) {
+            // Empty days, months and tree nodes don't take up space in their map
+            buckets.remove(key);
+        }
+    }
+
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // Categories are matched case-insensitively, like CategoryExpenseStrategy
+    public long getCategoryTotalCents(String category) {
+        int id = CategoryDictionary.getInstance().find(category);
+        return id >= 0 && id < categorySums.length ? categorySums[id] : 0;
+    }
+
+    public long getDayTotalCents(int epochDay) {
+        return sum(byDay.get(epochDay));
+    }
+
+    public long getMonthTotalCents(int year, int month) {
+        return sum(byMonth.get(EpochDays.monthIndex(year, month)));
+    }
+
+    // Monday-to-Sunday week containing the given day
+    public long getWeekTotalCents(int epochDay) {
+        int monday = EpochDays.startOfWeek(epochDay);
+        return getRangeTotalCents(monday, monday + 6);
+    }
+
+    // fromDay..toDay, both inclusive
+    public long getRangeTotalCents(int fromDay, int toDay) {
+        if (fromDay > toDay) return 0;
+        long before = fromDay <= FIRST_DAY ? 0 : prefixCents(fromDay - 1);
+        return prefixCents(toDay) - before;
+    }
+
+    private static long sum(Bucket bucket) {
+        return bucket == null ? 0 : bucket.sumCents;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.expensetracker.data;
+
+import java.util.TimeZone;
+
+/**
+ * Converts the date strings stored on expenses into epoch-day integers
+ * (days since 1970-01-01), so dates can be compared, bucketed and range-queried
+ * as plain ints. Pure arithmetic; java.time is not available on API 24.
+ */
+public final class EpochDays {
+
+    // Returned for missing or unparseable dates
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private EpochDays() {}
+
+    /**
+     * Parses both formats the app writes: "MM/dd/yyyy" (AddExpenseActivity)
+     * and "yyyy-MM-dd" (imported data).
+     */
+    public static int parse(String date) {
+        if (date == null) return UNKNOWN;
+        int length = date.length();
+        if (length == 10 && date.charAt(2) == '/' && date.charAt(5) == '/') {
+            return of(digits(date, 6, 10), digits(date, 0, 2), digits(date, 3, 5));
+        }
+        if (length == 10 && date.charAt(4) == '-' && date.charAt(7) == '-') {
+            return of(digits(date, 0, 4), digits(date, 5, 7), digits(date, 8, 10));
+        }
+        return UNKNOWN;
+    }
+
+    private static int digits(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9) return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Epoch day of a proleptic Gregorian date, or UNKNOWN if the date is invalid.
+     * (H. Hinnant's days_from_civil.)
+     */
+    public static int of(int year, int month, int day) {
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return UNKNOWN;
+        }
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yoe = y - era * 400;
+        int doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    public static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2: return isLeapYear(year) ? 29 : 28;
+            case 4: case 6: case 9: case 11: return 30;
+            default: return 31;
+        }
+    }
+
+    public static boolean isLeapYear(int year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+
+    /**
+     * Months since 0000-01, i.e. year * 12 + (month - 1). Cheap to compare and bucket.
+     */
+    public static int monthIndex(int epochDay) {
+        int z = epochDay + 719468;
+        int era = (z >= 0 ? z : z - 146096) / 146097;
+        int doe = z - era * 146097;
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 12 + month - 1;
+    }
+
+    public static int monthIndex(int year, int month) {
+        return year * 12 + month - 1;
+    }
+
+    /**
+     * Epoch day of an instant in the device's time zone.
+     */
+    public static int ofMillis(long epochMillis) {
+        long local = epochMillis + TimeZone.getDefault().getOffset(epochMillis);
+        return (int) Math.floorDiv(local, 86_400_000L);
+    }
+
+    /**
+     * ISO day of week, 1 = Monday ... 7 = Sunday. 1970-01-01 was a Thursday.
+     */
+    public static int dayOfWeek(int epochDay) {
+        return Math.floorMod(epochDay + 3, 7) + 1;
+    }
+
+    // Monday of the week containing epochDay
+    public static int startOfWeek(int epochDay) {
+        return epochDay - dayOfWeek(epochDay) + 1;
+    }
+
+    /**
+     * Formats an epoch day as "yyyy-MM-dd".
+     */
+    public static String format(int epochDay) {
+        if (epochDay == UNKNOWN) return "";
+        int monthIndex = monthIndex(epochDay);
+        int year = monthIndex / 12;
+        int month = monthIndex % 12 + 1;
+        int day = epochDay - of(year, month, 1) + 1;
+        return String.format(java.util.Locale.US, "%04d-%02d-%02d", year, month, day);
+    }
+
+    /**
+     * Formats a monthIndex() value as "yyyy-MM".
+     */
+    public static String formatMonthIndex(int monthIndex) {
+        return String.format(java.util.Locale.US, "%04d-%02d", monthIndex / 12, monthIndex % 12 + 1);
+    }
+
+    /**
+     * Formats an epoch day as "MM/dd/yyyy", the entry form's format.
+     */
+    public static String formatMonthDayYear(int epochDay) {
+        if (epochDay == UNKNOWN) return "";
+        int monthIndex = monthIndex(epochDay);
+        int year = monthIndex / 12;
+        int month = monthIndex % 12 + 1;
+        int day = epochDay - of(year, month, 1) + 1;
+        char[] out = new char[10];
+        out[0] = (char) ('0' + month / 10);
+        out[1] = (char) ('0' + month % 10);
+        out[2] = '/';
+        out[3] = (char) ('0' + day / 10);
+        out[4] = (char) ('0' + day % 10);
+        out[5] = '/';
+        out[6] = (char) ('0' + year / 1000 % 10);
+        out[7] = (char) ('0' + year / 100 % 10);
+        out[8] = (char) ('0' + year / 10 % 10);
+        out[9] = (char) ('0' + year % 10);
+        return new String(out);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.expensetracker.data;
+
+import androidx.annotation.Nullable;
+
+import com.example.expensetracker.model.Expense;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remote source the repository syncs with in the background.
+ * FirebaseExpenseBackend is the production implementation; tests plug in a fake.
+ * Listener callbacks are delivered on the main thread.
+ *
+ * Expenses are loaded in pages ordered by key, newest first. Expense keys are
+ * push IDs, which sort by creation time. Every loaded page stays live.
+ */
+public interface ExpenseBackend {
+
+    interface Listener {
+        void onExpenseUpserted(Expense expense);
+
+        /**
+         * A batch decoded off the main thread, in key order. The map is unmodifiable.
+         * Equivalent to onExpenseUpserted for each entry, applied as one change.
+         */
+        void onExpensesLoaded(Map<String, Expense> expenses);
+
+        void onExpenseRemoved(String expenseId);
+
+        // Only reported by backends whose ordering depends on a mutable field
+        void onExpenseMoved(String expenseId, @Nullable String previousExpenseId);
+
+        /**
+         * A page has been fully delivered. presentIds holds every remote expense whose
+         * key is in [startKey, endKey). startKey is null when nothing older remains,
+         * and endKey is null for the newest page, which also covers expenses added later.
+         */
+        void onPageLoaded(@Nullable String startKey, @Nullable String endKey, Set<String> presentIds);
+
+        void onSyncError(Exception error);
+    }
+
+    interface WriteCallback {
+        // error is null when the write was accepted
+        void onComplete(@Nullable Exception error);
+    }
+
+    // Loads the newest pageSize expenses and keeps listening
+    void start(int pageSize, Listener listener);
+
+    // Loads up to pageSize expenses with keys before endKey and keeps listening
+    void loadPageBefore(String endKey, int pageSize);
+
+    void stop();
+
+    @Nullable
+    String newExpenseId();
+
+    // Adds or replaces the expense stored under expense.getId()
+    void put(Expense expense, WriteCallback callback);
+
+    void remove(String expenseId, WriteCallback callback);
+
+    void removeAll(WriteCallback callback);
+
+    // Applies every write in the batch atomically, in one round-trip
+    void applyBatch(ExpenseWriteBatch batch, WriteCallback callback);
+}
@@ -0,0 +1,93 @@
+package com.example.expensetracker.data;
+
+import androidx.annotation.Nullable;
+
+import com.example.expensetracker.model.Expense;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Explicit, field-by-field conversion between Expense and the
+ * plain map tree the Realtime Database reads and writes (DataSnapshot.getValue()
+ * and setValue/updateChildren accept Map, String, Long and Double directly).
+ * This replaces Firebase's reflective bean mapping, which looks up accessors
+ * and converts types per property per row.
+ *
+ * Every encoded row carries SCHEMA_VERSION. Rows written before the field
+ * existed decode as version 1; unknown fields from newer versions are ignored.
+ */
+public final class ExpenseCodec {
+    public static final int SCHEMA_VERSION = 1;
+
+    static final String KEY_SCHEMA_VERSION = "schemaVersion";
+    static final String KEY_DESCRIPTION = "description";
+    static final String KEY_AMOUNT = "amount";
+    static final String KEY_CATEGORY = "category";
+    static final String KEY_DATE = "date";
+
+    private ExpenseCodec() {}
+
+    public static Map<String, Object> encode(Expense expense) {
+        Map<String, Object> raw = new HashMap<>(8);
+        raw.put(KEY_SCHEMA_VERSION, (long) SCHEMA_VERSION);
+        raw.put(KEY_DESCRIPTION, expense.getDescription());
+        // Stored in currency units, as every version of the app has written it
+        raw.put(KEY_AMOUNT, expense.getAmount());
+        raw.put(KEY_CATEGORY, expense.getCategory());
+        raw.put(KEY_DATE, expense.getDate());
+        return raw;
+    }
+
+    /**
+     * Decodes the value of the expenses/&lt;uid&gt;/&lt;expenseId&gt; node, or returns null
+     * if it is not an object.
+     */
+    @Nullable
+    public static Expense decode(String expenseId, @Nullable Object raw) {
+        if (!(raw instanceof Map)) return null;
+        Map<?, ?> fields = (Map<?, ?>) raw;
+        // Version 1 is the only layout so far; later versions branch on schemaVersion(fields) here
+        return Expense.ofCents(
+                expenseId,
+                asString(fields.get(KEY_DESCRIPTION)),
+                asCents(fields.get(KEY_AMOUNT)),
+                asString(fields.get(KEY_CATEGORY)),
+                asString(fields.get(KEY_DATE)));
+    }
+
+    // Version a raw row was written with; 1 for rows that predate the field
+    public static int schemaVersion(Map<?, ?> fields) {
+        Object version = fields.get(KEY_SCHEMA_VERSION);
+        return version instanceof Number ? ((Number) version).intValue() : 1;
+    }
+
+    @Nullable
+    private static String asString(@Nullable Object value) {
+        if (value == null || value instanceof String) return (String) value;
+        // Tolerate values edited by hand in the console, e.g. a numeric description
+        return String.valueOf(value);
+    }
+
+    private static long asCents(@Nullable Object value) {
+        try {
+            return Expense.toCents(asDouble(value));
+        } catch (ArithmeticException e) {
+            // NaN, Infinity or too large for cents: treated like text that isn't a number
+            return 0;
+        }
+    }
+
+    private static double asDouble(@Nullable Object value) {
+        // Whole numbers come back from the database as Long; strings are hand edits
+        if (value instanceof Number) return ((Number) value).doubleValue();
+        if (value instanceof String) {
+            try {
+                return Double.parseDouble((String) value);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.expensetracker.data;
+
+import com.example.expensetracker.model.Expense;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Local, on-device copy of the user's expenses. The repository renders from it
+ * immediately on cold start and reconciles remote changes into it.
+ * Implementations are called from a single background thread.
+ */
+public interface ExpenseStore {
+
+    /**
+     * Reads every stored expense, keyed by expense ID, in insertion order.
+     */
+    Map<String, Expense> loadAll() throws IOException;
+
+    // Adds or replaces the expense stored under expense.getId()
+    void put(Expense expense) throws IOException;
+
+    void remove(String expenseId) throws IOException;
+
+    void clear() throws IOException;
+
+    void close();
+}
@@ -0,0 +1,108 @@
+package com.example.expensetracker.data;
+
+import androidx.annotation.Nullable;
+
+import com.example.expensetracker.model.Expense;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A set of puts and deletes sent to the backend as one atomic multi-path
+ * update. Repeated writes to the same ID are coalesced: only the last one is
+ * kept, in the position of the first.
+ */
+public final class ExpenseWriteBatch {
+    // Expense ID -> new value, or null for a delete
+    private final Map<String, Expense> writes = new LinkedHashMap<>();
+    private int coalescedCount;
+
+    public ExpenseWriteBatch put(Expense expense) {
+        record(expense.getId(), expense);
+        return this;
+    }
+
+    public ExpenseWriteBatch delete(String expenseId) {
+        record(expenseId, null);
+        return this;
+    }
+
+    private void record(String expenseId, @Nullable Expense expense) {
+        if (expenseId == null) {
+            throw new IllegalArgumentException("expenseId must not be null");
+        }
+        if (writes.containsKey(expenseId)) coalescedCount++;
+        writes.put(expenseId, expense);
+    }
+
+    /**
+     * Final write per ID, in first-write order. A null value means delete.
+     */
+    public Map<String, Expense> getWrites() {
+        return Collections.unmodifiableMap(writes);
+    }
+
+    public int size() {
+        return writes.size();
+    }
+
+    public boolean isEmpty() {
+        return writes.isEmpty();
+    }
+
+    // Writes that were folded into a later write to the same ID
+    public int getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * Outcome of one ID's write. The batch is atomic, so either every result
+     * succeeds or every result carries the same error.
+     */
+    public static final class Result {
+        private final String expenseId;
+        private final boolean delete;
+        @Nullable
+        private final Exception error;
+
+        Result(String expenseId, boolean delete, @Nullable Exception error) {
+            this.expenseId = expenseId;
+            this.delete = delete;
+            this.error = error;
+        }
+
+        public String getExpenseId() {
+            return expenseId;
+        }
+
+        public boolean isDelete() {
+            return delete;
+        }
+
+        public boolean isSuccessful() {
+            return error == null;
+        }
+
+        @Nullable
+        public Exception getError() {
+            return error;
+        }
+    }
+
+    public interface Callback {
+        // One result per written ID, in batch order
+        void onComplete(List<Result> results);
+    }
+
+    // Results for every write in the batch, all with the same outcome
+    public List<Result> results(@Nullable Exception error) {
+        List<Result> results = new ArrayList<>(writes.size());
+        for (Map.Entry<String, Expense> entry : writes.entrySet()) {
+            results.add(new Result(entry.getKey(), entry.getValue() == null, error));
+        }
+        return results;
+    }
+}
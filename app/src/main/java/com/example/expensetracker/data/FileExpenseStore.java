@@ -0,0 +1,210 @@
+package com.example.expensetracker.data;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.expensetracker.model.Expense;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ExpenseStore backed by an append-only log file. Every put/remove appends one
+ * small record, so a mutation costs O(1) I/O. The log is replayed on load and
+ * rewritten (compacted) once dead records outweigh live ones, or when a torn
+ * record is found at the tail after a crash.
+ *
+ * Log format: MAGIC, FORMAT_VERSION (ints), then records of one op byte:
+ * OP_PUT id expense, OP_REMOVE id, or OP_CLEAR. An expense is written by
+ * writeExpense() and read back by readExpense(), which are the only definition
+ * of its layout. A log in any other format is discarded; the backend refills it.
+ */
+public class FileExpenseStore implements ExpenseStore {
+    private static final String TAG = "FileExpenseStore";
+
+    private static final int MAGIC = 0x45585031; // "EXP1"
+    private static final int FORMAT_VERSION = 2;
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final byte OP_CLEAR = 3;
+
+    // Don't bother compacting tiny logs
+    private static final int MIN_RECORDS_BEFORE_COMPACTION = 64;
+
+    private final File file;
+    private DataOutputStream out;
+    // Records read by the last replay, live or dead
+    private int replayedRecords;
+
+    public FileExpenseStore(File file) {
+        this.file = file;
+    }
+
+    /**
+     * One log per signed-in user, in the app's private files directory.
+     */
+    public static FileExpenseStore forUser(Context context, String userId) {
+        return new FileExpenseStore(new File(context.getFilesDir(), "expenses-" + userId + ".log"));
+    }
+
+    @Override
+    public synchronized Map<String, Expense> loadAll() throws IOException {
+        Map<String, Expense> expenses = new LinkedHashMap<>();
+        replayedRecords = 0;
+        boolean tornTail = false;
+
+        if (file.exists()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                int format = in.readInt() == MAGIC ? in.readInt() : -1;
+                if (format != FORMAT_VERSION) {
+                    Log.w(TAG, "Unknown log format, starting from an empty store");
+                    tornTail = true;
+                } else {
+                    tornTail = replay(in, expenses);
+                }
+            } catch (EOFException e) {
+                // File shorter than its header
+                tornTail = true;
+            }
+        }
+
+        // Compaction is decided at load time, when the live/dead ratio is known exactly
+        boolean compact = replayedRecords > MIN_RECORDS_BEFORE_COMPACTION && replayedRecords > 2 * expenses.size();
+        if (!file.exists() || tornTail || compact) {
+            rewrite(expenses);
+        }
+        return expenses;
+    }
+
+    private boolean replay(DataInputStream in, Map<String, Expense> expenses) throws IOException {
+        while (true) {
+            int op = in.read();
+            if (op == -1) return false;
+            try {
+                switch (op) {
+                    case OP_PUT:
+                        String expenseId = in.readUTF();
+                        expenses.put(expenseId, readExpense(in, expenseId));
+                        break;
+                    case OP_REMOVE:
+                        expenses.remove(in.readUTF());
+                        break;
+                    case OP_CLEAR:
+                        expenses.clear();
+                        break;
+                    default:
+                        Log.w(TAG, "Unknown record type " + op + ", dropping the rest of the log");
+                        return true;
+                }
+            } catch (EOFException e) {
+                Log.w(TAG, "Torn record at the end of the log, dropping it");
+                return true;
+            }
+            replayedRecords++;
+        }
+    }
+
+    @Override
+    public synchronized void put(Expense expense) throws IOException {
+        DataOutputStream stream = openForAppend();
+        stream.writeByte(OP_PUT);
+        stream.writeUTF(expense.getId());
+        writeExpense(stream, expense);
+        stream.flush();
+    }
+
+    @Override
+    public synchronized void remove(String expenseId) throws IOException {
+        DataOutputStream stream = openForAppend();
+        stream.writeByte(OP_REMOVE);
+        stream.writeUTF(expenseId);
+        stream.flush();
+    }
+
+    @Override
+    public synchronized void clear() throws IOException {
+        rewrite(new LinkedHashMap<>());
+    }
+
+    @Override
+    public synchronized void close() {
+        closeOutput();
+    }
+
+    private DataOutputStream openForAppend() throws IOException {
+        if (out == null) {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        }
+        return out;
+    }
+
+    private void closeOutput() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                Log.w(TAG, "Failed to close expense log", e);
+            }
+            out = null;
+        }
+    }
+
+    // Writes a fresh log holding only the live expenses, then swaps it in.
+    private void rewrite(Map<String, Expense> expenses) throws IOException {
+        closeOutput();
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            stream.writeInt(MAGIC);
+            stream.writeInt(FORMAT_VERSION);
+            for (Map.Entry<String, Expense> entry : expenses.entrySet()) {
+                stream.writeByte(OP_PUT);
+                stream.writeUTF(entry.getKey());
+                writeExpense(stream, entry.getValue());
+            }
+        }
+        if (!tmp.renameTo(file)) {
+            throw new IOException("Cannot replace " + file);
+        }
+    }
+
+    // description, amount in cents, category, epoch day, date text as written
+    private static void writeExpense(DataOutputStream out, Expense expense) throws IOException {
+        writeNullableString(out, expense.getDescription());
+        out.writeLong(expense.getAmountCents());
+        writeNullableString(out, expense.getCategory());
+        out.writeInt(expense.getEpochDay());
+        writeNullableString(out, expense.getDate());
+    }
+
+    private static Expense readExpense(DataInputStream in, String expenseId) throws IOException {
+        String description = readNullableString(in);
+        long amountCents = in.readLong();
+        String category = readNullableString(in);
+        int epochDay = in.readInt();
+        String rawDate = readNullableString(in);
+        return new Expense(expenseId, description, amountCents, category, epochDay, rawDate);
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
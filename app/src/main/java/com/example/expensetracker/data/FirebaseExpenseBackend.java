@@ -0,0 +1,367 @@
+package com.example.expensetracker.data;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.patterns.singleton.FirebaseManager;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * ExpenseBackend on top of the Realtime Database node expenses/&lt;uid&gt;.
+ * Each page is one live query, orderByKey().limitToLast(n): its initial
+ * child events render the page, so the first rows arrive without downloading
+ * the whole history, and the same listener then keeps the page live. Each
+ * mutation only transfers the one child that changed; no row is downloaded twice.
+ * Whole pages are mapped to Expense objects off the main thread by
+ * ParallelExpenseDecoder; only single live changes are decoded on the main thread.
+ * Rows are converted with ExpenseCodec rather than the reflective bean mapper.
+ */
+public class FirebaseExpenseBackend implements ExpenseBackend {
+    private final DatabaseReference expensesRef;
+    private final List<PageWatch> watches = new ArrayList<>();
+    // Rows that left their page's window, by expense ID
+    private final Map<String, RowWatch> rowWatches = new HashMap<>();
+    private final ParallelExpenseDecoder<DataSnapshot> decoder = new ParallelExpenseDecoder<>(
+            new ParallelExpenseDecoder.RowMapper<DataSnapshot>() {
+                @Override
+                public String keyOf(DataSnapshot row) {
+                    return row.getKey();
+                }
+
+                @Override
+                public Expense decode(String key, DataSnapshot row) {
+                    return ExpenseCodec.decode(key, row.getValue());
+                }
+            },
+            ForkJoinPool.commonPool(),
+            new Handler(Looper.getMainLooper())::post);
+    private Listener listener;
+
+    public FirebaseExpenseBackend(DatabaseReference expensesRef) {
+        this.expensesRef = expensesRef;
+    }
+
+    public static FirebaseExpenseBackend forUser(String userId) {
+        return new FirebaseExpenseBackend(
+                FirebaseManager.getInstance().getDatabase().getReference("expenses").child(userId));
+    }
+
+    @Override
+    public void start(int pageSize, Listener listener) {
+        stop();
+        this.listener = listener;
+        watches.add(new PageWatch(null, null, pageSize, listener, null));
+    }
+
+    @Override
+    public void loadPageBefore(String endKey, int pageSize) {
+        if (listener != null) {
+            watches.add(new PageWatch(null, endKey, pageSize, listener, null));
+        }
+    }
+
+    /**
+     * Live listener over one page: the last pageSize children before endKey.
+     * The single value event on the same query fires after its initial
+     * child_added events and shares their download, so it marks the point where
+     * the page is complete. Those initial children are buffered and decoded as one
+     * batch; later events are delivered in order behind it.
+     *
+     * A limited query also reports child_removed when a newer child pushes the
+     * oldest one out of the window. The page can't tell that from a deletion, so
+     * a child that leaves the window is handed to a RowWatch, which finds out.
+     * Once a page has handed out pageSize rows that still exist, it is reloaded
+     * as an unlimited query over its fixed key range, which nothing is pushed out
+     * of, and its RowWatches are dropped.
+     */
+    private final class PageWatch {
+        private final Query query;
+        private final ChildEventListener childEventListener;
+        private final ValueEventListener loadedListener;
+        private final int pageSize;
+        // Key range; startKey is known up front only for a reloaded page
+        private String startKey;
+        private final String endKey;
+        // Limited pages can push rows out; a reloaded page can't
+        private final boolean limited;
+        // The page this one replaces once loaded, or null
+        private PageWatch predecessor;
+        private final Listener target;
+        // Children currently in the query's window
+        private final Set<String> presentIds = new HashSet<>();
+        // Initial children in key order, until the page is loaded
+        private final Map<String, DataSnapshot> initialChildren = new LinkedHashMap<>();
+        private boolean loaded;
+        // Existing rows this page has handed to a RowWatch
+        private int evictedRows;
+        // Unlimited replacement over the same range, while it loads
+        private PageWatch reload;
+
+        PageWatch(@Nullable String startKey, @Nullable String endKey, int pageSize, Listener target,
+                  @Nullable PageWatch predecessor) {
+            this.startKey = startKey;
+            this.endKey = endKey;
+            this.pageSize = pageSize;
+            this.target = target;
+            this.predecessor = predecessor;
+            this.limited = predecessor == null;
+            Query range = expensesRef.orderByKey();
+            if (startKey != null) range = range.startAt(startKey);
+            if (endKey != null) range = range.endBefore(endKey);
+            query = limited ? range.limitToLast(pageSize) : range;
+
+            childEventListener = new ChildEventListener() {
+                @Override
+                public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                    onChildUpserted(snapshot);
+                }
+
+                @Override
+                public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                    onChildUpserted(snapshot);
+                }
+
+                @Override
+                public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                    String expenseId = snapshot.getKey();
+                    if (expenseId == null) return;
+                    presentIds.remove(expenseId);
+                    if (!loaded) {
+                        initialChildren.remove(expenseId);
+                    } else if (limited) {
+                        // Deleted, or pushed out of the window by a newer expense
+                        if (!rowWatches.containsKey(expenseId)) {
+                            rowWatches.put(expenseId, new RowWatch(expenseId, PageWatch.this));
+                        }
+                    } else {
+                        decoder.runInOrder(() -> target.onExpenseRemoved(expenseId));
+                    }
+                }
+
+                @Override
+                public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                    String expenseId = snapshot.getKey();
+                    if (expenseId != null) {
+                        decoder.runInOrder(() -> target.onExpenseMoved(expenseId, previousChildName));
+                    }
+                }
+
+                private void onChildUpserted(DataSnapshot snapshot) {
+                    String expenseId = snapshot.getKey();
+                    if (expenseId == null) return;
+                    presentIds.add(expenseId);
+                    if (!loaded) {
+                        initialChildren.put(expenseId, snapshot);
+                    } else {
+                        // A deletion can pull a pushed-out row back into the window
+                        RowWatch rowWatch = rowWatches.get(expenseId);
+                        if (rowWatch != null && rowWatch.page == PageWatch.this) rowWatch.remove();
+                        decoder.runInOrder(() -> deliverUpsert(snapshot, target));
+                    }
+                }
+
+                @Override
+                public void onCancelled(@NonNull DatabaseError error) {
+                    target.onSyncError(error.toException());
+                }
+            };
+            loadedListener = new ValueEventListener() {
+                @Override
+                public void onDataChange(@NonNull DataSnapshot snapshot) {
+                    loaded = true;
+                    List<DataSnapshot> children = new ArrayList<>(initialChildren.values());
+                    initialChildren.clear();
+                    decoder.decode(children, target::onExpensesLoaded);
+                    if (PageWatch.this.predecessor != null) {
+                        replacePredecessor();
+                        return;
+                    }
+                    // A full page means older expenses may remain; its first key is where they end
+                    PageWatch.this.startKey = children.size() >= pageSize ? children.get(0).getKey() : null;
+                    String loadedStartKey = PageWatch.this.startKey;
+                    Set<String> present = new HashSet<>(presentIds);
+                    decoder.runInOrder(() -> target.onPageLoaded(loadedStartKey, endKey, present));
+                }
+
+                @Override
+                public void onCancelled(@NonNull DatabaseError error) {
+                    target.onSyncError(error.toException());
+                }
+            };
+            query.addChildEventListener(childEventListener);
+            query.addListenerForSingleValueEvent(loadedListener);
+        }
+
+        // A RowWatch found that a row this page pushed out still exists
+        void onRowEvicted() {
+            evictedRows++;
+            if (evictedRows >= pageSize && reload == null) {
+                // Stays in charge, RowWatches included, until the reload has loaded
+                reload = new PageWatch(startKey, endKey, pageSize, target, this);
+            }
+        }
+
+        // Takes over from the limited page this one reloads; called once loaded
+        private void replacePredecessor() {
+            PageWatch old = predecessor;
+            predecessor = null;
+            watches.set(watches.indexOf(old), this);
+            old.reload = null;
+            old.remove();
+
+            // Anything the old page or its RowWatches knew of and this load didn't find was deleted
+            Set<String> known = new HashSet<>(old.presentIds);
+            Iterator<RowWatch> it = rowWatches.values().iterator();
+            while (it.hasNext()) {
+                RowWatch rowWatch = it.next();
+                if (rowWatch.page == old) {
+                    known.add(rowWatch.expenseId);
+                    rowWatch.detach();
+                    it.remove();
+                }
+            }
+            known.removeAll(presentIds);
+            for (String expenseId : known) {
+                // Deletions pull older rows into a limited window; those belong to the next page
+                if (startKey != null && expenseId.compareTo(startKey) < 0) continue;
+                decoder.runInOrder(() -> target.onExpenseRemoved(expenseId));
+            }
+        }
+
+        void remove() {
+            query.removeEventListener(childEventListener);
+            query.removeEventListener(loadedListener);
+            if (reload != null) {
+                reload.remove();
+                reload = null;
+            }
+        }
+    }
+
+    /**
+     * Keeps one expense live after it left its page's window. Its first value
+     * event tells a deletion (no data) from an eviction (data still there); an
+     * evicted expense stays watched here until its page is reloaded.
+     */
+    private final class RowWatch implements ValueEventListener {
+        private final DatabaseReference ref;
+        private final String expenseId;
+        private final PageWatch page;
+        private boolean counted;
+
+        RowWatch(String expenseId, PageWatch page) {
+            this.ref = expensesRef.child(expenseId);
+            this.expenseId = expenseId;
+            this.page = page;
+            ref.addValueEventListener(this);
+        }
+
+        @Override
+        public void onDataChange(@NonNull DataSnapshot snapshot) {
+            if (snapshot.exists()) {
+                decoder.runInOrder(() -> deliverUpsert(snapshot, page.target));
+                if (!counted) {
+                    counted = true;
+                    page.onRowEvicted();
+                }
+            } else {
+                remove();
+                decoder.runInOrder(() -> page.target.onExpenseRemoved(expenseId));
+            }
+        }
+
+        @Override
+        public void onCancelled(@NonNull DatabaseError error) {
+            page.target.onSyncError(error.toException());
+        }
+
+        // The row was deleted or is back in its page's window
+        void remove() {
+            detach();
+            rowWatches.remove(expenseId);
+            if (counted) page.evictedRows--;
+        }
+
+        void detach() {
+            ref.removeEventListener(this);
+        }
+    }
+
+    private static void deliverUpsert(DataSnapshot snapshot, Listener listener) {
+        String expenseId = snapshot.getKey();
+        if (expenseId == null) return;
+        Expense expense = ExpenseCodec.decode(expenseId, snapshot.getValue());
+        if (expense != null) {
+            listener.onExpenseUpserted(expense);
+        }
+    }
+
+    @Override
+    public void stop() {
+        decoder.cancelPending();
+        for (PageWatch watch : watches) {
+            watch.remove();
+        }
+        watches.clear();
+        for (RowWatch watch : rowWatches.values()) {
+            watch.detach();
+        }
+        rowWatches.clear();
+        listener = null;
+    }
+
+    @Nullable
+    @Override
+    public String newExpenseId() {
+        return expensesRef.push().getKey();
+    }
+
+    @Override
+    public void put(Expense expense, WriteCallback callback) {
+        complete(expensesRef.child(expense.getId()).setValue(ExpenseCodec.encode(expense)), callback);
+    }
+
+    @Override
+    public void remove(String expenseId, WriteCallback callback) {
+        complete(expensesRef.child(expenseId).removeValue(), callback);
+    }
+
+    @Override
+    public void removeAll(WriteCallback callback) {
+        complete(expensesRef.removeValue(), callback);
+    }
+
+    @Override
+    public void applyBatch(ExpenseWriteBatch batch, WriteCallback callback) {
+        // One multi-path update: all children are written or none are; null deletes
+        Map<String, Object> update = new HashMap<>();
+        for (Map.Entry<String, Expense> entry : batch.getWrites().entrySet()) {
+            update.put(entry.getKey(), entry.getValue() == null ? null : ExpenseCodec.encode(entry.getValue()));
+        }
+        complete(expensesRef.updateChildren(update), callback);
+    }
+
+    private static void complete(Task<Void> task, WriteCallback callback) {
+        task.addOnCompleteListener(t -> callback.onComplete(t.isSuccessful() ? null : t.getException()));
+    }
+}
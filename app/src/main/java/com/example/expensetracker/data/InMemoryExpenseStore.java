@@ -0,0 +1,39 @@
+package com.example.expensetracker.data;
+
+import com.example.expensetracker.model.Expense;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Non-persistent ExpenseStore. Used when no on-device file is available
+ * and as a stand-in for the file store in JVM tests.
+ */
+public class InMemoryExpenseStore implements ExpenseStore {
+    private final Map<String, Expense> expenses = new LinkedHashMap<>();
+
+    @Override
+    public synchronized Map<String, Expense> loadAll() {
+        return new LinkedHashMap<>(expenses);
+    }
+
+    @Override
+    public synchronized void put(Expense expense) {
+        expenses.put(expense.getId(), expense);
+    }
+
+    @Override
+    public synchronized void remove(String expenseId) {
+        expenses.remove(expenseId);
+    }
+
+    @Override
+    public synchronized void clear() {
+        expenses.clear();
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+}
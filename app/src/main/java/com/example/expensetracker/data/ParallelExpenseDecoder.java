@@ -0,0 +1,143 @@
+package com.example.expensetracker.data;
+
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.example.expensetracker.model.Expense;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Maps batches of raw rows (e.g. DataSnapshot children) to expenses on a
+ * fork-join pool, splitting each batch into chunks that decode in parallel.
+ * The main thread only receives the finished, unmodifiable map, so its cost per
+ * batch is a single hand-off, whatever the batch size. Results and any actions
+ * queued with runInOrder() are delivered on the main thread strictly in
+ * submission order, so a later live update is never overwritten by an earlier
+ * batch that took longer to decode.
+ * decode() and runInOrder() must be called on the main thread.
+ */
+final class ParallelExpenseDecoder<R> {
+
+    interface RowMapper<R> {
+        @Nullable
+        String keyOf(R row);
+
+        // Only called for rows with a key; null skips the row
+        @Nullable
+        Expense decode(String key, R row);
+    }
+
+    private static final String TAG = "ExpenseDecoder";
+
+    // Rows per leaf task; below this, splitting costs more than it saves
+    static final int CHUNK_SIZE = 128;
+
+    private final RowMapper<R> mapper;
+    private final ForkJoinPool pool;
+    private final Executor mainExecutor;
+    // Main thread only: deliveries waiting for the ones before them
+    private final ArrayDeque<Step> steps = new ArrayDeque<>();
+
+    private static final class Step {
+        Runnable delivery;
+    }
+
+    ParallelExpenseDecoder(RowMapper<R> mapper, ForkJoinPool pool, Executor mainExecutor) {
+        this.mapper = mapper;
+        this.pool = pool;
+        this.mainExecutor = mainExecutor;
+    }
+
+    void decode(List<R> rows, Consumer<Map<String, Expense>> onDecoded) {
+        Step step = new Step();
+        steps.addLast(step);
+        pool.execute(() -> {
+            int size = rows.size();
+            String[] keys = new String[size];
+            Expense[] expenses = new Expense[size];
+            new DecodeTask(rows, keys, expenses, 0, size).invoke();
+
+            Map<String, Expense> decoded = new LinkedHashMap<>(size * 4 / 3 + 1);
+            for (int i = 0; i < size; i++) {
+                if (keys[i] != null && expenses[i] != null) decoded.put(keys[i], expenses[i]);
+            }
+            Map<String, Expense> snapshot = Collections.unmodifiableMap(decoded);
+            mainExecutor.execute(() -> {
+                step.delivery = () -> onDecoded.accept(snapshot);
+                drain();
+            });
+        });
+    }
+
+    // Runs the action now if nothing is decoding, otherwise after everything submitted so far
+    void runInOrder(Runnable action) {
+        if (steps.isEmpty()) {
+            action.run();
+            return;
+        }
+        Step step = new Step();
+        step.delivery = action;
+        steps.addLast(step);
+    }
+
+    // Drops pending deliveries, e.g. when the backend stops
+    void cancelPending() {
+        steps.clear();
+    }
+
+    private void drain() {
+        while (!steps.isEmpty() && steps.peekFirst().delivery != null) {
+            steps.pollFirst().delivery.run();
+        }
+    }
+
+    private final class DecodeTask extends RecursiveAction {
+        // ForkJoinTask is Serializable; tasks are never serialized
+        private static final long serialVersionUID = 1L;
+
+        private final List<R> rows;
+        private final String[] keys;
+        private final Expense[] expenses;
+        private final int from;
+        private final int to;
+
+        DecodeTask(List<R> rows, String[] keys, Expense[] expenses, int from, int to) {
+            this.rows = rows;
+            this.keys = keys;
+            this.expenses = expenses;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                for (int i = from; i < to; i++) {
+                    R row = rows.get(i);
+                    keys[i] = mapper.keyOf(row);
+                    if (keys[i] == null) continue;
+                    try {
+                        expenses[i] = mapper.decode(keys[i], row);
+                    } catch (RuntimeException e) {
+                        // A malformed row must not stall every delivery queued behind it
+                        Log.w(TAG, "Skipping expense " + keys[i] + " that failed to decode", e);
+                    }
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new DecodeTask(rows, keys, expenses, from, mid),
+                    new DecodeTask(rows, keys, expenses, mid, to));
+        }
+    }
+}
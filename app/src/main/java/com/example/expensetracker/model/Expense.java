@@ -0,0 +1,147 @@
+package com.example.expensetracker.model;
+
+import androidx.annotation.Nullable;
+
+import com.example.expensetracker.analytics.CategoryDictionary;
+import com.example.expensetracker.data.EpochDays;
+
+import java.util.Objects;
+
+/**
+ * One expense, as the app holds it in memory. Immutable: an edit is a new
+ * Expense with the same ID, so instances can be shared between threads,
+ * snapshots and observers without copying.
+ *
+ * Values are normalized once, when the expense is created: the amount is kept
+ * in cents, the date as an epoch day and the category as a CategoryDictionary ID.
+ * Those are for grouping and sums only. The category and date text are kept as
+ * written, and are what equality compares and what gets saved, so an edit that
+ * only changes case is not lost and a "yyyy-MM-dd" date is not rewritten.
+ */
+public final class Expense {
+    private final String id;
+    @Nullable
+    private final String description;
+    private final long amountCents;
+    @Nullable
+    private final String category;
+    private final int categoryId;
+    private final int epochDay;
+    // The date text as written; null for an expense created from an epoch day
+    @Nullable
+    private final String rawDate;
+
+    public Expense(String id, @Nullable String description, long amountCents,
+                   @Nullable String category, int epochDay) {
+        this(id, description, amountCents, category, epochDay, null);
+    }
+
+    // rawDate is the text epochDay was parsed from, kept so it is written back unchanged
+    public Expense(String id, @Nullable String description, long amountCents,
+                   @Nullable String category, int epochDay, @Nullable String rawDate) {
+        if (id == null) {
+            throw new IllegalArgumentException("Expense id must not be null");
+        }
+        this.id = id;
+        this.description = description;
+        this.amountCents = amountCents;
+        this.category = category;
+        this.categoryId = CategoryDictionary.getInstance().intern(category);
+        this.epochDay = epochDay;
+        this.rawDate = rawDate;
+    }
+
+    /**
+     * Builds an expense from the loosely typed values found in forms, intents and
+     * stored rows. The date may be "MM/dd/yyyy" or "yyyy-MM-dd".
+     */
+    public static Expense of(String id, @Nullable String description, double amount,
+                             @Nullable String category, @Nullable String date) {
+        return new Expense(id, description, toCents(amount), category, EpochDays.parse(date), date);
+    }
+
+    // As of(), for an amount that is already in cents
+    public static Expense ofCents(String id, @Nullable String description, long amountCents,
+                                  @Nullable String category, @Nullable String date) {
+        return new Expense(id, description, amountCents, category, EpochDays.parse(date), date);
+    }
+
+    // Rounds to whole cents; see Money.toMinorUnits
+    public static long toCents(double amount) {
+        return Money.toMinorUnits(amount, Money.DEFAULT_CURRENCY, Money.DEFAULT_ROUNDING);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @Nullable
+    public String getDescription() {
+        return description;
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    // Amount in dollars, as the stored row format has it; format and sum getAmountCents() instead
+    public double getAmount() {
+        return Money.toMajorUnits(amountCents, Money.DEFAULT_CURRENCY);
+    }
+
+    /**
+     * Case-insensitive category ID from CategoryDictionary, so totals, filters
+     * and row colors compare ints instead of folding strings per row.
+     */
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    // The category as written on this expense; group by getCategoryId()
+    @Nullable
+    public String getCategory() {
+        return category;
+    }
+
+    // The date as an epoch day, or EpochDays.UNKNOWN if it doesn't parse
+    public int getEpochDay() {
+        return epochDay;
+    }
+
+    /**
+     * The date text as written, or for an expense created from an epoch day,
+     * that day as the entry form writes it ("MM/dd/yyyy").
+     */
+    @Nullable
+    public String getDate() {
+        return rawDate != null || epochDay == EpochDays.UNKNOWN ? rawDate : EpochDays.formatMonthDayYear(epochDay);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Expense)) return false;
+        Expense other = (Expense) o;
+        return amountCents == other.amountCents
+                && epochDay == other.epochDay
+                && id.equals(other.id)
+                && Objects.equals(description, other.description)
+                && Objects.equals(category, other.category)
+                && Objects.equals(getDate(), other.getDate());
+    }
+
+    @Override
+    public int hashCode() {
+        int result = id.hashCode();
+        result = 31 * result + Long.hashCode(amountCents);
+        result = 31 * result + Objects.hashCode(category);
+        result = 31 * result + epochDay;
+        result = 31 * result + Objects.hashCode(description);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "Expense{" + id + " " + description + " " + amountCents + "c " + getCategory() + " " + getDate() + "}";
+    }
+}
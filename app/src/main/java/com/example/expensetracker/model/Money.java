@@ -0,0 +1,100 @@
+package com.example.expensetracker.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Locale;
+
+/**
+ * Conversions between amounts as people and databases write them (text,
+ * doubles) and the exact minor units (cents) the app computes with.
+ * Conversion happens once, when a value enters the app; sums are then plain
+ * long additions, so totals are exact and don't depend on summation order.
+ */
+public final class Money {
+    // Expenses are entered and shown in dollars
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("USD");
+    // Banker's rounding, so rounding errors don't drift one way across many rows
+    public static final RoundingMode DEFAULT_ROUNDING = RoundingMode.HALF_EVEN;
+
+    private static final double[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000};
+    // Minor units below which a double's error is far smaller than 1e-6
+    private static final double FAST_PATH_LIMIT = 1e9;
+
+    private Money() {}
+
+    private static boolean isHalfRounding(RoundingMode rounding) {
+        return rounding == RoundingMode.HALF_EVEN || rounding == RoundingMode.HALF_UP
+                || rounding == RoundingMode.HALF_DOWN;
+    }
+
+    /**
+     * Minor units for a decimal amount. The double is read as its shortest
+     * decimal form (0.1 is 0.1, not 0.1000000000000000055...), then rounded to
+     * the currency's fraction digits. Throws ArithmeticException if it doesn't fit.
+     */
+    public static long toMinorUnits(double amount, Currency currency, RoundingMode rounding) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            throw new ArithmeticException("Not an amount: " + amount);
+        }
+        // Fast path for the usual row: well below 2^53 and not near a half, the
+        // nearest integer is the same whichever way the decimal form is read
+        int digits = fractionDigits(currency);
+        if (digits < POWERS_OF_TEN.length && isHalfRounding(rounding)) {
+            double scaled = amount * POWERS_OF_TEN[digits];
+            double nearest = Math.rint(scaled);
+            if (Math.abs(scaled) < FAST_PATH_LIMIT && Math.abs(Math.abs(scaled - nearest) - 0.5) > 1e-6) {
+                return (long) nearest;
+            }
+        }
+        return BigDecimal.valueOf(amount)
+                .setScale(digits, rounding)
+                .unscaledValue()
+                .longValueExact();
+    }
+
+    /**
+     * Parses text such as "25.50", "$25.50" or "1,200" into minor units.
+     * The currency symbol and grouping commas are ignored.
+     *
+     * @throws NumberFormatException if the text is not an amount
+     */
+    public static long parse(String text, Currency currency, RoundingMode rounding) {
+        String plain = text.trim()
+                .replace(currency.getSymbol(Locale.US), "")
+                .replace(",", "")
+                .trim();
+        try {
+            return new BigDecimal(plain)
+                    .setScale(fractionDigits(currency), rounding)
+                    .unscaledValue()
+                    .longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + text);
+        }
+    }
+
+    // For display and double-based APIs only; never sum the result
+    public static double toMajorUnits(long minorUnits, Currency currency) {
+        // One correctly rounded division, exact below 2^53 minor units
+        return minorUnits / Math.pow(10, fractionDigits(currency));
+    }
+
+    // "1234.50" for 123450 cents; what the entry form shows
+    public static String toPlainString(long minorUnits, Currency currency) {
+        return BigDecimal.valueOf(minorUnits, fractionDigits(currency)).toPlainString();
+    }
+
+    // "$1234.50", "-$3.00"
+    public static String format(long minorUnits, Currency currency) {
+        String symbol = currency.getSymbol(Locale.US);
+        return minorUnits < 0
+                ? "-" + symbol + toPlainString(-minorUnits, currency)
+                : symbol + toPlainString(minorUnits, currency);
+    }
+
+    public static int fractionDigits(Currency currency) {
+        // Pseudo-currencies report -1
+        return Math.max(currency.getDefaultFractionDigits(), 0);
+    }
+}
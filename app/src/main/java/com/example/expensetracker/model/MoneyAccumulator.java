@@ -0,0 +1,68 @@
+package com.example.expensetracker.model;
+
+import java.util.Currency;
+
+/**
+ * Running sum of minor units in one currency. Adding is a single long
+ * addition with no boxing or allocation, and overflow throws instead of
+ * wrapping. Not thread-safe; give each thread its own and combine them with
+ * addAll().
+ */
+public final class MoneyAccumulator {
+    private final Currency currency;
+    private long minorUnits;
+    private int count;
+
+    public MoneyAccumulator() {
+        this(Money.DEFAULT_CURRENCY);
+    }
+
+    public MoneyAccumulator(Currency currency) {
+        this.currency = currency;
+    }
+
+    public void add(long amountMinorUnits) {
+        minorUnits = Math.addExact(minorUnits, amountMinorUnits);
+        count++;
+    }
+
+    public void add(Expense expense) {
+        add(expense.getAmountCents());
+    }
+
+    // Folds in a sum built elsewhere, e.g. by another thread
+    public void addAll(MoneyAccumulator other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Cannot add " + other.currency + " to " + currency);
+        }
+        minorUnits = Math.addExact(minorUnits, other.minorUnits);
+        count += other.count;
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    // Number of amounts added
+    public int getCount() {
+        return count;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public double toMajorUnits() {
+        return Money.toMajorUnits(minorUnits, currency);
+    }
+
+    public void reset() {
+        minorUnits = 0;
+        count = 0;
+    }
+
+    @Override
+    public String toString() {
+        return Money.format(minorUnits, currency);
+    }
+}
@@ -8,7 +8,7 @@ import java.util.Date;
  * ADAPTER PATTERN:
  * The "Adaptee" class. This represents an incompatible object from an
  * external source that our system needs to integrate with.
- * Note the differences from MainActivity.Expense:
+ * Note the differences from model.Expense:
  * - Amount is a String with a currency symbol.
  * - Date is a java.util.Date object.
  * - There is no expense ID.
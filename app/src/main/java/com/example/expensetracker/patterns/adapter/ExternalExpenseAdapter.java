@@ -1,57 +1,64 @@
 //Adapter
 package com.example.expensetracker.patterns.adapter;
 
-import com.example.expensetracker.MainActivity;
+import com.example.expensetracker.data.EpochDays;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.Money;
 
-import java.text.SimpleDateFormat;
-import java.util.Locale;
+import java.math.RoundingMode;
+import java.util.Currency;
 
 /**
  * ADAPTER PATTERN:
  * The "Adapter" class. This class wraps the "Adaptee" (ExternalExpense)
  * and exposes a target interface that the client code expects.
+ * Expense is an immutable value, so rather than subclassing it the adapter
+ * converts the external record into one. The cost text and the date are
+ * parsed once, when the adapter is created.
  */
-public class ExternalExpenseAdapter extends MainActivity.Expense {
+public class ExternalExpenseAdapter {
     private final ExternalExpense externalExpense;
+    private final long amountCents;
+    private final int epochDay;
 
     public ExternalExpenseAdapter(ExternalExpense externalExpense) {
-        // The adapter holds a reference to the adaptee
-        this.externalExpense = externalExpense;
+        this(externalExpense, Money.DEFAULT_CURRENCY, Money.DEFAULT_ROUNDING);
     }
 
-    @Override
-    public String getDescription() {
-        return externalExpense.getDescription();
+    /**
+     * @param currency the currency the external cost is quoted in
+     * @param rounding applied when the cost has more decimals than the currency
+     */
+    public ExternalExpenseAdapter(ExternalExpense externalExpense, Currency currency, RoundingMode rounding) {
+        // The adapter holds a reference to the adaptee
+        this.externalExpense = externalExpense;
+        // Transformation logic: Convert string "$25.50" to 2550 cents
+        this.amountCents = parseCost(externalExpense.getCost(), currency, rounding);
+        // Transformation logic: Convert Date object to an epoch day
+        this.epochDay = EpochDays.ofMillis(externalExpense.getTransactionDate().getTime());
     }
 
-    @Override
-    public double getAmount() {
-        // Transformation logic: Convert string "$25.50" to double 25.50
-        String cost = externalExpense.getCost().replace("$", "").trim();
+    private static long parseCost(String cost, Currency currency, RoundingMode rounding) {
         try {
-            return Double.parseDouble(cost);
+            return Money.parse(cost, currency, rounding);
         } catch (NumberFormatException e) {
-            return 0.0;
+            return 0;
         }
     }
 
-    @Override
-    public String getCategory() {
-        return externalExpense.getCategory();
+    /**
+     * The external record as an Expense. External records have no ID, so one is
+     * derived from their content.
+     */
+    public Expense toExpense() {
+        return new Expense(getId(), externalExpense.getDescription(), amountCents,
+                externalExpense.getCategory(), epochDay);
     }
 
-    @Override
-    public String getDate() {
-        // Transformation logic: Convert Date object to String
-        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-        return formatter.format(externalExpense.getTransactionDate());
+    public long getAmountCents() {
+        return amountCents;
     }
 
-    // You might need to override other methods from Expense if they are not
-    // handled by a default constructor or if they need to be adapted.
-    // For example, if your client code relies on Id, you might generate
-    // one or return a default value.
-//    @Override
     public String getId() {
         return "external-" + externalExpense.getDescription() + externalExpense.getCost();
     }
@@ -1,23 +1,36 @@
 //concrete command
 package com.example.expensetracker.patterns.command;
 
-import com.example.expensetracker.MainActivity;
+import com.example.expensetracker.model.Expense;
 
 /**
  * COMMAND PATTERN:
  * A concrete command for adding an expense.
+ * The expense is created with an ID reserved through ExpenseReceiver.newExpenseId(),
+ * so the add can be undone and later commands can refer to the new expense
+ * before it is written.
  */
 public class AddExpenseCommand implements Command {
     private final ExpenseReceiver receiver;
-    private final MainActivity.Expense expense;
+    private final Expense expense;
 
-    public AddExpenseCommand(ExpenseReceiver receiver, MainActivity.Expense expense) {
+    public AddExpenseCommand(ExpenseReceiver receiver, Expense expense) {
         this.receiver = receiver;
         this.expense = expense;
     }
 
     @Override
     public void execute() {
-        receiver.addExpense(expense);
+        receiver.putExpense(expense);
+    }
+
+    @Override
+    public String getExpenseId() {
+        return expense.getId();
+    }
+
+    @Override
+    public Expense getResult() {
+        return expense;
     }
 }
@@ -2,10 +2,36 @@
 //Tamim Amin
 package com.example.expensetracker.patterns.command;
 
+import androidx.annotation.Nullable;
+
+import com.example.expensetracker.model.Expense;
+
 /**
  * COMMAND PATTERN:
  * The Command interface. All concrete commands will implement this.
+ * Commands that write a single expense also describe that write, which is
+ * what CommandInvoker records for undo/redo and uses to merge edits.
  */
 public interface Command {
     void execute();
+
+    // The expense this command writes, or null if it doesn't target one expense
+    @Nullable
+    default String getExpenseId() {
+        return null;
+    }
+
+    // The expense's value after execute(); null for a delete
+    @Nullable
+    default Expense getResult() {
+        return null;
+    }
+
+    /**
+     * True if this command makes an earlier, still pending command redundant,
+     * e.g. a second edit of the same expense. The earlier one is then dropped.
+     */
+    default boolean supersedes(Command earlier) {
+        return false;
+    }
 }
@@ -0,0 +1,90 @@
+package com.example.expensetracker.patterns.command;
+
+import androidx.annotation.Nullable;
+
+import com.example.expensetracker.model.Expense;
+
+import java.util.Arrays;
+
+/**
+ * COMMAND PATTERN:
+ * Undo/redo history kept in a fixed-size ring buffer. Once full, recording a
+ * new entry overwrites the oldest one, so memory stays bounded however long
+ * the session runs. Recording after an undo discards the redo entries.
+ */
+public class CommandHistory {
+
+    /**
+     * One recorded write: the expense's value before and after. A null value
+     * means the expense did not exist (before an add, after a delete).
+     */
+    public static final class Entry {
+        public final String expenseId;
+        @Nullable
+        public final Expense before;
+        @Nullable
+        public final Expense after;
+
+        public Entry(String expenseId, @Nullable Expense before, @Nullable Expense after) {
+            this.expenseId = expenseId;
+            this.before = before;
+            this.after = after;
+        }
+    }
+
+    private final Entry[] entries;
+    // Index one past the newest undoable entry
+    private int cursor;
+    private int undoCount;
+    private int redoCount;
+
+    public CommandHistory(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        entries = new Entry[capacity];
+    }
+
+    public void record(Entry entry) {
+        entries[cursor] = entry;
+        cursor = (cursor + 1) % entries.length;
+        undoCount = Math.min(undoCount + 1, entries.length);
+        redoCount = 0;
+    }
+
+    // The entry to reverse, or null if there is nothing to undo
+    @Nullable
+    public Entry undo() {
+        if (undoCount == 0) return null;
+        cursor = (cursor - 1 + entries.length) % entries.length;
+        undoCount--;
+        redoCount++;
+        return entries[cursor];
+    }
+
+    // The entry to re-apply, or null if there is nothing to redo
+    @Nullable
+    public Entry redo() {
+        if (redoCount == 0) return null;
+        Entry entry = entries[cursor];
+        cursor = (cursor + 1) % entries.length;
+        redoCount--;
+        undoCount++;
+        return entry;
+    }
+
+    public boolean canUndo() {
+        return undoCount > 0;
+    }
+
+    public boolean canRedo() {
+        return redoCount > 0;
+    }
+
+    public void clear() {
+        Arrays.fill(entries, null);
+        cursor = 0;
+        undoCount = 0;
+        redoCount = 0;
+    }
+}
@@ -2,13 +2,95 @@
 //Tamim Amin
 package com.example.expensetracker.patterns.command;
 
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
+
+import com.example.expensetracker.data.ExpenseWriteBatch;
+import com.example.expensetracker.model.Expense;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 /**
  * COMMAND PATTERN:
  * The "Invoker" class. This class is what the client interacts with.
- * It holds a command and can be asked to execute it.
+ * It holds a command and can be asked to execute it, or queues several
+ * commands and flushes them to a receiver as one batched write.
+ *
+ * Built with a receiver, it is also an asynchronous pipeline: submit() returns
+ * immediately, a single background worker runs the pending commands in
+ * submission order (so in order per expense) and hands the resulting batch to
+ * the receiver, which applies it to the model on the main thread and writes it
+ * to the store and backend off it. A command that supersedes the last pending one (another
+ * edit of the same expense) replaces it, so rapid edits become one write.
+ * Every submitted write is recorded in a ring-buffer undo/redo history.
+ * submit(), undo() and redo() must be called on the main thread.
  */
 public class CommandInvoker {
+    public static final int DEFAULT_HISTORY_SIZE = 50;
+
     private Command command;
+    private final List<Command> queue = new ArrayList<>();
+
+    // --- Asynchronous pipeline (only set up by the receiver constructor) ---
+    private final ExpenseReceiver receiver;
+    private final Executor worker;
+    private final Executor mainExecutor;
+    private final CommandHistory history;
+    // Guarded by itself; drained by the worker
+    private final ArrayDeque<Command> pending = new ArrayDeque<>();
+    private boolean drainScheduled;
+    private int mergedCount;
+    // Main thread only: values submitted but not yet applied to the repository,
+    // so the "before" of a new history entry accounts for earlier pending commands
+    private final Map<String, Staged> staged = new HashMap<>();
+    // Set on the main thread, read by the worker
+    @Nullable
+    private volatile ExpenseWriteBatch.Callback resultCallback;
+
+    private static final class Staged {
+        @Nullable
+        final Expense value;
+
+        Staged(@Nullable Expense value) {
+            this.value = value;
+        }
+    }
+
+    public CommandInvoker() {
+        this.receiver = null;
+        this.worker = null;
+        this.mainExecutor = null;
+        this.history = null;
+    }
+
+    public CommandInvoker(ExpenseReceiver receiver) {
+        this(receiver, newWorker(), new Handler(Looper.getMainLooper())::post, DEFAULT_HISTORY_SIZE);
+    }
+
+    // Lets JVM tests drive the worker and main thread by hand
+    public CommandInvoker(ExpenseReceiver receiver, Executor worker, Executor mainExecutor, int historySize) {
+        this.receiver = receiver;
+        this.worker = worker;
+        this.mainExecutor = mainExecutor;
+        this.history = new CommandHistory(historySize);
+    }
+
+    // One thread that exits when idle; at most one drain is ever queued, so a tiny queue is enough
+    private static Executor newWorker() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(2));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
 
     public void setCommand(Command command) {
         this.command = command;
@@ -19,4 +101,145 @@ public class CommandInvoker {
             command.execute();
         }
     }
+
+    // Bulk edits, imports and multi-deletes queue their commands here
+    public void queueCommand(Command command) {
+        queue.add(command);
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * Runs the queued commands in order, which stage their writes on the receiver,
+     * then commits the receiver's batch as one atomic update.
+     */
+    public void flush(ExpenseReceiver receiver, @Nullable ExpenseWriteBatch.Callback callback) {
+        List<Command> commands = new ArrayList<>(queue);
+        queue.clear();
+        for (Command queued : commands) {
+            queued.execute();
+        }
+        receiver.commit(callback);
+    }
+
+    // --- Asynchronous pipeline ---
+
+    // Receives the per-item results of every batch the pipeline writes
+    public void setResultCallback(@Nullable ExpenseWriteBatch.Callback callback) {
+        this.resultCallback = callback;
+    }
+
+    /**
+     * Queues a command for the background worker and records it for undo.
+     * Never blocks on I/O.
+     */
+    public void submit(Command command) {
+        requirePipeline();
+        String expenseId = command.getExpenseId();
+        if (expenseId != null) {
+            history.record(new CommandHistory.Entry(expenseId, currentValue(expenseId), command.getResult()));
+        }
+        enqueue(command);
+    }
+
+    public boolean undo() {
+        requirePipeline();
+        CommandHistory.Entry entry = history.undo();
+        if (entry == null) return false;
+        enqueue(writeCommand(entry.expenseId, entry.before));
+        return true;
+    }
+
+    public boolean redo() {
+        requirePipeline();
+        CommandHistory.Entry entry = history.redo();
+        if (entry == null) return false;
+        enqueue(writeCommand(entry.expenseId, entry.after));
+        return true;
+    }
+
+    public boolean canUndo() {
+        return history != null && history.canUndo();
+    }
+
+    public boolean canRedo() {
+        return history != null && history.canRedo();
+    }
+
+    // Forgets every recorded write, e.g. after the expenses were deleted outside the pipeline
+    public void clearHistory() {
+        requirePipeline();
+        history.clear();
+    }
+
+    // Commands dropped because a later command superseded them before they ran
+    public int getMergedCount() {
+        synchronized (pending) {
+            return mergedCount;
+        }
+    }
+
+    private Command writeCommand(String expenseId, @Nullable Expense value) {
+        return value == null
+                ? new DeleteExpenseCommand(receiver, expenseId)
+                : new EditExpenseCommand(receiver, value);
+    }
+
+    @Nullable
+    private Expense currentValue(String expenseId) {
+        Staged latest = staged.get(expenseId);
+        return latest != null ? latest.value : receiver.getExpense(expenseId);
+    }
+
+    private void enqueue(Command command) {
+        String expenseId = command.getExpenseId();
+        if (expenseId != null) {
+            staged.put(expenseId, new Staged(command.getResult()));
+        }
+        synchronized (pending) {
+            Command last = pending.peekLast();
+            if (last != null && command.supersedes(last)) {
+                pending.pollLast();
+                mergedCount++;
+            }
+            pending.addLast(command);
+            if (!drainScheduled) {
+                drainScheduled = true;
+                worker.execute(this::drain);
+            }
+        }
+    }
+
+    // Worker thread: run everything pending, then hand the batch to the repository
+    private void drain() {
+        List<Command> commands;
+        synchronized (pending) {
+            commands = new ArrayList<>(pending);
+            pending.clear();
+            drainScheduled = false;
+        }
+        for (Command queued : commands) {
+            queued.execute();
+        }
+        ExpenseWriteBatch batch = receiver.takePending();
+        receiver.apply(batch, resultCallback);
+        // Posted behind the repository's own hop to the main thread, so by the
+        // time this runs the repository holds these values; keep newer submissions staged
+        mainExecutor.execute(() -> {
+            for (Map.Entry<String, Expense> write : batch.getWrites().entrySet()) {
+                Staged latest = staged.get(write.getKey());
+                if (latest != null && latest.value == write.getValue()) {
+                    staged.remove(write.getKey());
+                }
+            }
+        });
+    }
+
+    private void requirePipeline() {
+        if (receiver == null) {
+            throw new IllegalStateException("CommandInvoker was created without a receiver");
+        }
+    }
 }
@@ -0,0 +1,31 @@
+//concrete command
+package com.example.expensetracker.patterns.command;
+
+/**
+ * COMMAND PATTERN:
+ * A concrete command for deleting an expense.
+ */
+public class DeleteExpenseCommand implements Command {
+    private final ExpenseReceiver receiver;
+    private final String expenseId;
+
+    public DeleteExpenseCommand(ExpenseReceiver receiver, String expenseId) {
+        this.receiver = receiver;
+        this.expenseId = expenseId;
+    }
+
+    @Override
+    public void execute() {
+        receiver.removeExpense(expenseId);
+    }
+
+    @Override
+    public String getExpenseId() {
+        return expenseId;
+    }
+
+    @Override
+    public boolean supersedes(Command earlier) {
+        return expenseId.equals(earlier.getExpenseId());
+    }
+}
@@ -0,0 +1,40 @@
+//concrete command
+package com.example.expensetracker.patterns.command;
+
+import com.example.expensetracker.model.Expense;
+
+/**
+ * COMMAND PATTERN:
+ * A concrete command for replacing an existing expense.
+ */
+public class EditExpenseCommand implements Command {
+    private final ExpenseReceiver receiver;
+    private final Expense expense;
+
+    // The expense replaces the one with the same ID
+    public EditExpenseCommand(ExpenseReceiver receiver, Expense expense) {
+        this.receiver = receiver;
+        this.expense = expense;
+    }
+
+    @Override
+    public void execute() {
+        receiver.putExpense(expense);
+    }
+
+    @Override
+    public String getExpenseId() {
+        return expense.getId();
+    }
+
+    @Override
+    public Expense getResult() {
+        return expense;
+    }
+
+    // Writes replace the whole expense, so any earlier pending write to it is redundant
+    @Override
+    public boolean supersedes(Command earlier) {
+        return expense.getId().equals(earlier.getExpenseId());
+    }
+}
@@ -2,27 +2,82 @@
 //Tamim Amin
 package com.example.expensetracker.patterns.command;
 
-import com.example.expensetracker.MainActivity;
-import java.util.List;
+import androidx.annotation.Nullable;
+
+import com.example.expensetracker.data.ExpenseWriteBatch;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.patterns.observer.ExpenseRepository;
 
 /**
  * COMMAND PATTERN:
  * The "Receiver" class. This contains the business logic to execute.
- * It knows how to perform the necessary actions (e.g., add or remove from a list).
+ * Commands stage their writes here; commit() sends everything staged since the
+ * last commit to the repository as one batch, so N mutations cost one
+ * round-trip. Repeated writes to the same expense collapse into the last one.
+ * Staging is synchronized because CommandInvoker runs commands on its worker
+ * thread, which also calls apply(); the repository moves the model update to
+ * the main thread and the I/O off it. newExpenseId and getExpense are read on
+ * the main thread.
  */
 public class ExpenseReceiver {
-    private final List<MainActivity.Expense> expenses;
+    private final ExpenseRepository repository;
+    private ExpenseWriteBatch pending = new ExpenseWriteBatch();
+
+    public ExpenseReceiver(ExpenseRepository repository) {
+        this.repository = repository;
+    }
+
+    // A fresh expense ID, or null if the repository is not open
+    @Nullable
+    public String newExpenseId() {
+        return repository.newExpenseId();
+    }
+
+    // The repository's current copy of an expense
+    @Nullable
+    public Expense getExpense(String expenseId) {
+        return repository.getExpense(expenseId);
+    }
+
+    // Stages an add; the expense was created with an ID from newExpenseId()
+    public void addExpense(Expense expense) {
+        putExpense(expense);
+    }
+
+    public synchronized void putExpense(Expense expense) {
+        pending.put(expense);
+    }
+
+    public void updateExpense(Expense expense) {
+        putExpense(expense);
+    }
+
+    public synchronized void removeExpense(String expenseId) {
+        pending.delete(expenseId);
+    }
+
+    // Distinct expenses with a staged write
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
 
-    public ExpenseReceiver(List<MainActivity.Expense> expenses) {
-        this.expenses = expenses;
+    // Hands over the staged writes and starts a new batch
+    public synchronized ExpenseWriteBatch takePending() {
+        ExpenseWriteBatch batch = pending;
+        pending = new ExpenseWriteBatch();
+        return batch;
     }
 
-    public void addExpense(MainActivity.Expense expense) {
-        expenses.add(expense);
-        // In a real app, you'd also save to a database, update UI, etc.
+    // Sends a batch taken with takePending() as one atomic update
+    public void apply(ExpenseWriteBatch batch, @Nullable ExpenseWriteBatch.Callback callback) {
+        repository.applyBatch(batch, callback);
     }
 
-    public void removeExpense(MainActivity.Expense expense) {
-        expenses.remove(expense);
+    /**
+     * Sends the staged writes as one atomic update and starts a new batch.
+     * The callback gets one result per written expense.
+     */
+    public void commit(@Nullable ExpenseWriteBatch.Callback callback) {
+        apply(takePending(), callback);
     }
 }
@@ -1,12 +1,20 @@
 package com.example.expensetracker.patterns.composite;
 
+import com.example.expensetracker.model.Money;
+
 import java.util.Collections;
 import java.util.List;
 
 public interface ExpenseComponent {
     
     String getTitle();
-    double getAmount();
+    // Exact amount in cents; sum this, not getAmount()
+    long getAmountCents();
+    default double getAmount() {
+        return Money.toMajorUnits(getAmountCents(), Money.DEFAULT_CURRENCY);
+    }
+    // Number of expenses (leaves) in this component
+    int getCount();
     boolean isComposite();
     default void add(ExpenseComponent component) {
         throw new UnsupportedOperationException("Cannot add to this component");
@@ -17,4 +25,4 @@ public interface ExpenseComponent {
     default List<ExpenseComponent> getChildren() {
         return Collections.emptyList();
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,26 @@
 package com.example.expensetracker.patterns.composite;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
+/**
+ * A group keeps its subtotal and count up to date as children come and go:
+ * adding or removing a child adds its figures to, or subtracts them from,
+ * this group and every group above it. getAmountCents() and getCount() are
+ * O(1), and a change costs O(depth). This relies on leaves being immutable,
+ * which SingleExpense is; a changed expense is removed and re-added.
+ */
 public class ExpenseGroup implements ExpenseComponent {
 
     private final String title;
-    private final List<ExpenseComponent> children = new ArrayList<>();
+    // Insertion-ordered, so removing a child doesn't scan its siblings
+    private final Set<ExpenseComponent> children = new LinkedHashSet<>();
+    private ExpenseGroup parent;
+    private long subtotalCents;
+    private int count;
 
     public ExpenseGroup(String title) {
         this.title = title;
@@ -18,14 +32,15 @@ public class ExpenseGroup implements ExpenseComponent {
     }
 
     @Override
-    public double getAmount() {
-        // The operation for a Composite is to delegate to its children
-        // and aggregate the results (in this case, sum them up).
-        double total = 0.0;
-        for (ExpenseComponent component : children) {
-            total += component.getAmount();
-        }
-        return total;
+    public long getAmountCents() {
+        // The operation for a Composite is to aggregate its children;
+        // the sum is kept current as they change, so nothing is walked here.
+        return subtotalCents;
+    }
+
+    @Override
+    public int getCount() {
+        return count;
     }
 
     @Override
@@ -35,16 +50,48 @@ public class ExpenseGroup implements ExpenseComponent {
 
     @Override
     public void add(ExpenseComponent component) {
-        children.add(component);
+        if (component instanceof ExpenseGroup) {
+            ExpenseGroup group = (ExpenseGroup) component;
+            // A group's figures can only flow up one path
+            if (group.parent != null) {
+                throw new IllegalStateException(group.title + " already belongs to " + group.parent.title);
+            }
+            for (ExpenseGroup ancestor = this; ancestor != null; ancestor = ancestor.parent) {
+                if (ancestor == group) {
+                    throw new IllegalArgumentException("Cannot add " + group.title + " to itself");
+                }
+            }
+            group.parent = this;
+        }
+        if (children.add(component)) {
+            propagate(component.getAmountCents(), component.getCount());
+        }
     }
 
     @Override
     public void remove(ExpenseComponent component) {
-        children.remove(component);
+        if (!children.remove(component)) return;
+        if (component instanceof ExpenseGroup) {
+            ((ExpenseGroup) component).parent = null;
+        }
+        propagate(-component.getAmountCents(), -component.getCount());
+    }
+
+    // Applies a child's change to this group and everything above it
+    private void propagate(long deltaCents, int deltaCount) {
+        for (ExpenseGroup group = this; group != null; group = group.parent) {
+            group.subtotalCents = Math.addExact(group.subtotalCents, deltaCents);
+            group.count += deltaCount;
+        }
+    }
+
+    public boolean isEmpty() {
+        return children.isEmpty();
     }
 
+    // A read-only copy; change the tree through add() and remove()
     @Override
     public List<ExpenseComponent> getChildren() {
-        return children;
+        return Collections.unmodifiableList(new ArrayList<>(children));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,125 @@
+package com.example.expensetracker.patterns.composite;
+
+import androidx.annotation.Nullable;
+
+import com.example.expensetracker.analytics.CategoryDictionary;
+import com.example.expensetracker.data.EpochDays;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.patterns.observer.ExpenseChangeObserver;
+import com.example.expensetracker.patterns.observer.ExpenseChangeSet;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A Composite tree of total -> category -> month -> expense that lives as long
+ * as its observer registration and is patched from change sets instead of
+ * being rebuilt. Every group keeps its own subtotal, so any figure in the tree
+ * is O(1) to read, and an insert, update or removal costs O(depth). Groups
+ * are created when their first expense arrives and dropped with their last.
+ * Main thread only, like the repository callbacks that feed it.
+ */
+public class ExpenseHierarchy implements ExpenseChangeObserver {
+    // Month key for expenses whose date didn't parse
+    private static final int UNDATED = -1;
+
+    private final ExpenseGroup root;
+    private final Map<Integer, ExpenseGroup> categoryGroups = new HashMap<>();
+    // (category ID, month index) -> month group
+    private final Map<Long, ExpenseGroup> monthGroups = new HashMap<>();
+    private final Map<String, Placement> placements = new HashMap<>();
+    private long version;
+
+    // Where an expense's leaf sits, so it can be removed without a search
+    private static final class Placement {
+        final ExpenseComponent leaf;
+        final int categoryId;
+        final long monthKey;
+
+        Placement(ExpenseComponent leaf, int categoryId, long monthKey) {
+            this.leaf = leaf;
+            this.categoryId = categoryId;
+            this.monthKey = monthKey;
+        }
+    }
+
+    public ExpenseHierarchy() {
+        this("Total Expenses");
+    }
+
+    public ExpenseHierarchy(String title) {
+        this.root = new ExpenseGroup(title);
+    }
+
+    public ExpenseGroup getRoot() {
+        return root;
+    }
+
+    @Nullable
+    public ExpenseGroup getCategoryGroup(String category) {
+        int categoryId = CategoryDictionary.getInstance().find(category);
+        return categoryId == CategoryDictionary.NOT_FOUND ? null : categoryGroups.get(categoryId);
+    }
+
+    @Override
+    public void onExpensesChanged(ExpenseChangeSet changes) {
+        // Skip change sets already applied, e.g. the replay on re-registration
+        if (changes.getVersion() <= version) return;
+        version = changes.getVersion();
+        for (String expenseId : changes.getRemoved()) {
+            remove(expenseId);
+        }
+        for (Expense expense : changes.getInserted().values()) {
+            put(expense);
+        }
+        for (Expense expense : changes.getUpdated().values()) {
+            put(expense);
+        }
+    }
+
+    // Adds the expense, replacing any earlier version of it
+    public void put(Expense expense) {
+        remove(expense.getId());
+        int categoryId = expense.getCategoryId();
+        int month = expense.getEpochDay() == EpochDays.UNKNOWN ? UNDATED : EpochDays.monthIndex(expense.getEpochDay());
+        long monthKey = ((long) categoryId << 32) | (month & 0xFFFFFFFFL);
+
+        ExpenseGroup monthGroup = monthGroups.get(monthKey);
+        if (monthGroup == null) {
+            ExpenseGroup categoryGroup = categoryGroups.get(categoryId);
+            if (categoryGroup == null) {
+                categoryGroup = new ExpenseGroup(CategoryDictionary.getInstance().nameOf(categoryId));
+                categoryGroups.put(categoryId, categoryGroup);
+                root.add(categoryGroup);
+            }
+            monthGroup = new ExpenseGroup(monthTitle(month));
+            monthGroups.put(monthKey, monthGroup);
+            categoryGroup.add(monthGroup);
+        }
+        ExpenseComponent leaf = new SingleExpense(expense);
+        monthGroup.add(leaf);
+        placements.put(expense.getId(), new Placement(leaf, categoryId, monthKey));
+    }
+
+    public void remove(String expenseId) {
+        Placement placement = placements.remove(expenseId);
+        if (placement == null) return;
+        ExpenseGroup monthGroup = monthGroups.get(placement.monthKey);
+        monthGroup.remove(placement.leaf);
+        if (!monthGroup.isEmpty()) return;
+
+        ExpenseGroup categoryGroup = categoryGroups.get(placement.categoryId);
+        monthGroups.remove(placement.monthKey);
+        categoryGroup.remove(monthGroup);
+        if (categoryGroup.isEmpty()) {
+            categoryGroups.remove(placement.categoryId);
+            root.remove(categoryGroup);
+        }
+    }
+
+    // "2025-08", or "Undated"
+    private static String monthTitle(int month) {
+        if (month == UNDATED) return "Undated";
+        return EpochDays.formatMonthIndex(month);
+    }
+}
@@ -1,13 +1,13 @@
 package com.example.expensetracker.patterns.composite;
 
-import com.example.expensetracker.MainActivity;
+import com.example.expensetracker.model.Expense;
 
 public class SingleExpense implements ExpenseComponent {
 
-    // Holds the original data object from MainActivity
-    private final MainActivity.Expense expense;
+    // Holds the original (immutable) expense
+    private final Expense expense;
 
-    public SingleExpense(MainActivity.Expense expense) {
+    public SingleExpense(Expense expense) {
         this.expense = expense;
     }
 
@@ -18,9 +18,14 @@ public class SingleExpense implements ExpenseComponent {
     }
 
     @Override
-    public double getAmount() {
+    public long getAmountCents() {
         // The operation for a Leaf is to just return its own value
-        return this.expense.getAmount();
+        return this.expense.getAmountCents();
+    }
+
+    @Override
+    public int getCount() {
+        return 1;
     }
 
     @Override
@@ -29,7 +34,7 @@ public class SingleExpense implements ExpenseComponent {
     }
 
     // For access to other data if needed
-    public MainActivity.Expense getExpense() {
+    public Expense getExpense() {
         return expense;
     }
 
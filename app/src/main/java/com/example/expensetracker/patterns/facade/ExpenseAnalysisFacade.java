@@ -3,62 +3,216 @@
 package com.example.expensetracker.patterns.facade;
 
 import android.util.Log;
-import com.example.expensetracker.MainActivity;
+import com.example.expensetracker.analytics.ExpenseAggregates;
+import com.example.expensetracker.analytics.ExpenseAggregator;
+import com.example.expensetracker.analytics.ExpenseColumns;
+import com.example.expensetracker.analytics.ExpenseDateIndex;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.Money;
 import com.example.expensetracker.patterns.strategy.CategoryExpenseStrategy;
 import com.example.expensetracker.patterns.strategy.DailyExpenseStrategy;
+import com.example.expensetracker.patterns.strategy.ExpenseCalculationStrategy;
 import com.example.expensetracker.patterns.strategy.ExpenseCalculatorContext;
-import com.example.expensetracker.patterns.composite.ExpenseComponent;
-import com.example.expensetracker.patterns.composite.ExpenseGroup;
-import com.example.expensetracker.patterns.composite.SingleExpense;
 import com.example.expensetracker.patterns.strategy.TotalExpenseStrategy;
 import com.example.expensetracker.patterns.adapter.ExternalExpense;
 import com.example.expensetracker.patterns.adapter.ExternalExpenseAdapter;
+import com.example.expensetracker.patterns.factory.ConcreteExpenseFactory;
+import com.example.expensetracker.patterns.factory.ExpenseGrouping;
+import com.example.expensetracker.patterns.factory.LazyExpenseGroup;
+import com.example.expensetracker.patterns.observer.ExpenseChangeObserver;
+import com.example.expensetracker.patterns.observer.ExpenseChangeSet;
 
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * FACADE PATTERN:
  * Provides a simplified interface to the complex logic of
- * Expense Strategies and Composite hierarchies.
+ * Expense Strategies and the columnar aggregation engine.
  * The Client (MainActivity) only needs to call one method to get results,
  * without knowing how the strategies or trees are built.
  */
-public class ExpenseAnalysisFacade {
+public class ExpenseAnalysisFacade implements ExpenseChangeObserver {
+    // Cached strategy results; a dashboard's worth of figures with room to spare
+    public static final int DEFAULT_CACHE_SIZE = 64;
 
     private final ExpenseCalculatorContext strategyContext;
+    // Strategy results by (strategy, snapshot version), least recently used first.
+    // Main thread only, like the repository callbacks that invalidate it.
+    private final Map<CacheKey, Long> resultCache;
+    private long cacheHits;
+    private long cacheMisses;
 
     public ExpenseAnalysisFacade() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    public ExpenseAnalysisFacade(int cacheSize) {
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("Cache size must be positive: " + cacheSize);
+        }
         this.strategyContext = new ExpenseCalculatorContext();
+        // Short lists still run on the calling thread; only bulk reports fan out
+        this.strategyContext.setPool(ForkJoinPool.commonPool());
+        this.resultCache = new LinkedHashMap<CacheKey, Long>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, Long> eldest) {
+                return size() > cacheSize;
+            }
+        };
     }
 
     // --- STRATEGY SUBSYSTEM WRAPPERS ---
 
-    public double calculateTotal(List<MainActivity.Expense> expenses) {
+    // Totals are exact, in cents. These always scan; see the cached wrappers below
+    public long calculateTotal(List<Expense> expenses) {
         strategyContext.setStrategy(new TotalExpenseStrategy());
         return strategyContext.executeStrategy(expenses);
     }
 
-    public double calculateCategoryTotal(List<MainActivity.Expense> expenses, String category) {
+    public long calculateCategoryTotal(List<Expense> expenses, String category) {
         strategyContext.setStrategy(new CategoryExpenseStrategy(category));
         return strategyContext.executeStrategy(expenses);
     }
 
-    public double calculateDailyTotal(List<MainActivity.Expense> expenses, String date) {
+    public long calculateDailyTotal(List<Expense> expenses, String date) {
         strategyContext.setStrategy(new DailyExpenseStrategy(date));
         return strategyContext.executeStrategy(expenses);
     }
 
+    /**
+     * Several figures in one pass over the list, keyed by strategy. Prefer this
+     * over calling the single-figure wrappers above one after another.
+     */
+    public Map<ExpenseCalculationStrategy, Long> calculateAll(List<Expense> expenses,
+                                                              List<? extends ExpenseCalculationStrategy> strategies) {
+        return strategyContext.executeStrategies(strategies, expenses);
+    }
+
+    // --- CACHED STRATEGY WRAPPERS ---
+    // For lists that are the repository snapshot at snapshotVersion (the version of
+    // the last change set applied to them). Results are kept until the next change
+    // set arrives, so re-rendering unchanged data doesn't scan it again. Equal
+    // strategies, e.g. two CategoryExpenseStrategy("Food"), share a result.
+
+    public long calculate(ExpenseCalculationStrategy strategy, List<Expense> expenses, long snapshotVersion) {
+        CacheKey key = new CacheKey(strategy, snapshotVersion);
+        Long cached = resultCache.get(key);
+        if (cached != null) {
+            cacheHits++;
+            return cached;
+        }
+        cacheMisses++;
+        strategyContext.setStrategy(strategy);
+        long total = strategyContext.executeStrategy(expenses);
+        resultCache.put(key, total);
+        return total;
+    }
+
+    // Only the strategies that miss are computed, together in one pass
+    public Map<ExpenseCalculationStrategy, Long> calculateAll(List<Expense> expenses,
+                                                              List<? extends ExpenseCalculationStrategy> strategies,
+                                                              long snapshotVersion) {
+        Map<ExpenseCalculationStrategy, Long> results = new LinkedHashMap<>();
+        List<ExpenseCalculationStrategy> misses = new ArrayList<>();
+        for (ExpenseCalculationStrategy strategy : strategies) {
+            Long cached = resultCache.get(new CacheKey(strategy, snapshotVersion));
+            if (cached != null) {
+                cacheHits++;
+            } else {
+                cacheMisses++;
+                misses.add(strategy);
+            }
+            // A placeholder for a miss keeps the results in the order given
+            results.put(strategy, cached);
+        }
+        if (!misses.isEmpty()) {
+            for (Map.Entry<ExpenseCalculationStrategy, Long> entry : strategyContext.executeStrategies(misses, expenses).entrySet()) {
+                results.put(entry.getKey(), entry.getValue());
+                resultCache.put(new CacheKey(entry.getKey(), snapshotVersion), entry.getValue());
+            }
+        }
+        return results;
+    }
+
+    // Any change makes every cached figure stale; register with ExpenseRepository.addChangeObserver()
+    @Override
+    public void onExpensesChanged(ExpenseChangeSet changes) {
+        resultCache.clear();
+    }
+
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    private static final class CacheKey {
+        final ExpenseCalculationStrategy strategy;
+        final long version;
+
+        CacheKey(ExpenseCalculationStrategy strategy, long version) {
+            this.strategy = strategy;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof CacheKey)) return false;
+            CacheKey other = (CacheKey) o;
+            return version == other.version && strategy.equals(other.strategy);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * strategy.hashCode() + Long.hashCode(version);
+        }
+    }
+
     // --- COMPOSITE SUBSYSTEM WRAPPER ---
 
     /**
-     * Hides the complexity of building the Composite Tree.
-     * It constructs the tree and returns the calculated grand total.
+     * Year -> month -> category -> expense drill-down over the list. Only the
+     * root total is computed here; each node builds its children when first
+     * expanded.
      */
-    public void generateCompositeAnalysisLog(List<MainActivity.Expense> expenses) {
+    public LazyExpenseGroup buildDrillDown(List<Expense> expenses) {
+        return new ConcreteExpenseFactory().hierarchyBuilder()
+                .groupBy(ExpenseGrouping.YEAR)
+                .groupBy(ExpenseGrouping.MONTH)
+                .groupBy(ExpenseGrouping.CATEGORY)
+                .build("Total Expenses", expenses);
+    }
+
+    // --- AGGREGATION SUBSYSTEM WRAPPER ---
+
+    /**
+     * Computes total, per-category, per-day and per-month figures in one pass.
+     * Prefer this over calling the single-figure strategy wrappers one after another.
+     */
+    public ExpenseAggregates analyze(List<Expense> expenses) {
+        return ExpenseAggregator.aggregate(ExpenseColumns.of(expenses));
+    }
+
+    /**
+     * Sorted, prefix-summed day index over the list, for repeated day, week, month
+     * or date-range totals in O(log n) each.
+     */
+    public ExpenseDateIndex buildDateIndex(List<Expense> expenses) {
+        return ExpenseDateIndex.of(expenses);
+    }
+
+    /**
+     * Logs the category breakdown from an existing aggregation pass,
+     * without copying the list or building a Composite tree just to sum it.
+     */
+    public void generateCompositeAnalysisLog(ExpenseAggregates aggregates) {
         // --- ADAPTER PATTERN DEMO ---
         // 1. Create the incompatible object from the external source
         ExternalExpense externalExpense = new ExternalExpense(
@@ -69,38 +223,19 @@ public class ExpenseAnalysisFacade {
         );
 
         // 2. Create the adapter and wrap the external object
-        MainActivity.Expense adaptedExpense = new ExternalExpenseAdapter(externalExpense);
-
-        // 3. Add the adapted object to the list. The client code can now
-        //    treat it just like any other standard Expense object.
-        List<MainActivity.Expense> allExpenses = new ArrayList<>(expenses);
-        allExpenses.add(adaptedExpense);
+        Expense adaptedExpense = new ExternalExpenseAdapter(externalExpense).toExpense();
         // --- END ADAPTER DEMO ---
 
-        if (allExpenses.isEmpty()) return;
-
-        Log.d("FacadePattern", "--- Generating Composite Analysis ---");
-
-        ExpenseComponent allExpensesGroup = new ExpenseGroup("Total Expenses");
-        Map<String, ExpenseGroup> categoryGroups = new HashMap<>();
-
-        // Loop through the combined list of expenses
-        for (MainActivity.Expense expense : allExpenses) {
-            String category = expense.getCategory();
-
-            ExpenseGroup categoryGroup = categoryGroups.get(category);
-            if (categoryGroup == null) {
-                categoryGroup = new ExpenseGroup(category);
-                categoryGroups.put(category, categoryGroup);
-                allExpensesGroup.add(categoryGroup);
-            }
+        if (aggregates.getCount() == 0) return;
 
-            ExpenseComponent singleExpenseLeaf = new SingleExpense(expense);
-            categoryGroup.add(singleExpenseLeaf);
+        Log.d("FacadePattern", "--- Generating Category Analysis ---");
+        for (Map.Entry<String, Long> entry : aggregates.getCategoryTotalsCents().entrySet()) {
+            Log.d("FacadePattern", entry.getKey() + ": " + Money.format(entry.getValue(), Money.DEFAULT_CURRENCY));
         }
 
-        double total = allExpensesGroup.getAmount();
-        Log.d("FacadePattern", "Composite Calculated Total: $" + total);
+        // 3. The adapted object is treated just like any other standard Expense object.
+        long total = Math.addExact(aggregates.getTotalCents(), adaptedExpense.getAmountCents());
+        Log.d("FacadePattern", "Calculated Total (incl. adapted expense): " + Money.format(total, Money.DEFAULT_CURRENCY));
         Log.d("AdapterPattern", "Successfully processed adapted expense: " + adaptedExpense.getDescription());
     }
 }
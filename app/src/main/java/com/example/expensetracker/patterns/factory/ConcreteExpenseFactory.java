@@ -1,6 +1,6 @@
 package com.example.expensetracker.patterns.factory;
 
-import com.example.expensetracker.MainActivity.Expense;
+import com.example.expensetracker.model.Expense;
 import com.example.expensetracker.patterns.composite.ExpenseComponent;
 import com.example.expensetracker.patterns.composite.SingleExpense;
 
@@ -1,9 +1,14 @@
 package com.example.expensetracker.patterns.factory;
 
-import com.example.expensetracker.MainActivity.Expense;
+import com.example.expensetracker.model.Expense;
 import com.example.expensetracker.patterns.composite.ExpenseComponent;
 
 //The Factory Interface: Declares the factory method for creating ExpenseComponents.
 public interface ExpenseComponentFactory {
     ExpenseComponent createExpenseComponent(Expense expense);
+
+    // A drill-down hierarchy whose leaves this factory creates
+    default ExpenseHierarchyBuilder hierarchyBuilder() {
+        return new ExpenseHierarchyBuilder(this);
+    }
 }
@@ -0,0 +1,53 @@
+package com.example.expensetracker.patterns.factory;
+
+import com.example.expensetracker.analytics.CategoryDictionary;
+import com.example.expensetracker.data.EpochDays;
+import com.example.expensetracker.model.Expense;
+
+import java.util.function.Function;
+
+/**
+ * One level of a drill-down hierarchy: which group an expense falls in, and
+ * what that group is called. Sibling groups are ordered by key.
+ */
+public interface ExpenseGrouping<K extends Comparable<K>> {
+
+    K keyOf(Expense expense);
+
+    String titleOf(K key);
+
+    // Undated expenses group under "Undated", ahead of every year and month
+    ExpenseGrouping<Integer> YEAR = of(
+            expense -> expense.getEpochDay() == EpochDays.UNKNOWN
+                    ? Integer.MIN_VALUE : EpochDays.monthIndex(expense.getEpochDay()) / 12,
+            year -> year == Integer.MIN_VALUE ? "Undated" : String.valueOf(year));
+
+    ExpenseGrouping<Integer> MONTH = of(
+            expense -> expense.getEpochDay() == EpochDays.UNKNOWN
+                    ? Integer.MIN_VALUE : EpochDays.monthIndex(expense.getEpochDay()),
+            month -> month == Integer.MIN_VALUE ? "Undated" : EpochDays.formatMonthIndex(month));
+
+    // Keyed by dictionary ID, so spellings that differ only in case share a group
+    ExpenseGrouping<Integer> CATEGORY = of(
+            Expense::getCategoryId,
+            categoryId -> String.valueOf(CategoryDictionary.getInstance().nameOf(categoryId)));
+
+    // Expenses have no merchant field; the description is the closest thing to one
+    ExpenseGrouping<String> DESCRIPTION = of(
+            expense -> expense.getDescription() == null ? "" : expense.getDescription(),
+            description -> description);
+
+    static <K extends Comparable<K>> ExpenseGrouping<K> of(Function<Expense, K> key, Function<K, String> title) {
+        return new ExpenseGrouping<K>() {
+            @Override
+            public K keyOf(Expense expense) {
+                return key.apply(expense);
+            }
+
+            @Override
+            public String titleOf(K k) {
+                return title.apply(k);
+            }
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.expensetracker.patterns.factory;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.MoneyAccumulator;
+import com.example.expensetracker.patterns.composite.ExpenseComponent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Builds drill-down Composite trees such as year -> month -> category ->
+ * expense, or category -> description -> expense. build() only sums the
+ * expenses for the root; each level below is built when it is first
+ * expanded (see LazyExpenseGroup), so a report over a large list pays for the
+ * nodes it opens rather than the whole tree. Leaves come from the factory.
+ */
+public class ExpenseHierarchyBuilder {
+
+    private final ExpenseComponentFactory leafFactory;
+    private final List<ExpenseGrouping<?>> levels = new ArrayList<>();
+
+    public ExpenseHierarchyBuilder(ExpenseComponentFactory leafFactory) {
+        this.leafFactory = leafFactory;
+    }
+
+    // Adds a level below the ones added so far
+    public ExpenseHierarchyBuilder groupBy(ExpenseGrouping<?> level) {
+        levels.add(level);
+        return this;
+    }
+
+    /**
+     * The root of the tree. The list is copied, so later changes to it don't
+     * show up in the tree.
+     */
+    public LazyExpenseGroup build(String title, List<Expense> expenses) {
+        List<Expense> snapshot = new ArrayList<>(expenses);
+        MoneyAccumulator total = new MoneyAccumulator();
+        for (Expense expense : snapshot) {
+            total.add(expense.getAmountCents());
+        }
+        return new LazyExpenseGroup(title, snapshot, total.getMinorUnits(),
+                Collections.unmodifiableList(new ArrayList<>(levels)), leafFactory);
+    }
+}
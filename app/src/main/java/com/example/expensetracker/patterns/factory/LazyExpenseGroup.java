@@ -0,0 +1,105 @@
+package com.example.expensetracker.patterns.factory;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.MoneyAccumulator;
+import com.example.expensetracker.patterns.composite.ExpenseComponent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A group in a drill-down hierarchy built by ExpenseHierarchyBuilder. Its
+ * subtotal and count are known when it is created, but its children are only
+ * built the first time getChildren() is called, one level at a time: expanding
+ * a node partitions just its own expenses. A read-only snapshot, so add() and
+ * remove() are not supported. Not thread-safe.
+ */
+public final class LazyExpenseGroup implements ExpenseComponent {
+
+    private final String title;
+    private final List<Expense> expenses;
+    // Levels below this node; empty means the children are the expenses themselves
+    private final List<ExpenseGrouping<?>> levels;
+    private final ExpenseComponentFactory leafFactory;
+    private final long amountCents;
+    private List<ExpenseComponent> children;
+
+    LazyExpenseGroup(String title, List<Expense> expenses, long amountCents,
+                     List<ExpenseGrouping<?>> levels, ExpenseComponentFactory leafFactory) {
+        this.title = title;
+        this.expenses = expenses;
+        this.amountCents = amountCents;
+        this.levels = levels;
+        this.leafFactory = leafFactory;
+    }
+
+    @Override
+    public String getTitle() {
+        return title;
+    }
+
+    @Override
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    @Override
+    public int getCount() {
+        return expenses.size();
+    }
+
+    @Override
+    public boolean isComposite() {
+        return true;
+    }
+
+    // True once getChildren() has built this node's children
+    public boolean isExpanded() {
+        return children != null;
+    }
+
+    @Override
+    public List<ExpenseComponent> getChildren() {
+        if (children == null) {
+            children = Collections.unmodifiableList(levels.isEmpty() ? leaves() : partition(levels.get(0)));
+        }
+        return children;
+    }
+
+    private List<ExpenseComponent> leaves() {
+        List<ExpenseComponent> leaves = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            leaves.add(leafFactory.createExpenseComponent(expense));
+        }
+        return leaves;
+    }
+
+    // One pass over this node's expenses gives every child its expenses and subtotal
+    private <K extends Comparable<K>> List<ExpenseComponent> partition(ExpenseGrouping<K> level) {
+        Map<K, List<Expense>> groups = new TreeMap<>();
+        Map<K, MoneyAccumulator> totals = new TreeMap<>();
+        for (Expense expense : expenses) {
+            K key = level.keyOf(expense);
+            List<Expense> group = groups.get(key);
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.put(key, group);
+                totals.put(key, new MoneyAccumulator());
+            }
+            group.add(expense);
+            totals.get(key).add(expense.getAmountCents());
+        }
+
+        List<ExpenseGrouping<?>> below = levels.subList(1, levels.size());
+        List<ExpenseComponent> result = new ArrayList<>(groups.size());
+        for (Map.Entry<K, List<Expense>> entry : groups.entrySet()) {
+            K key = entry.getKey();
+            result.add(new LazyExpenseGroup(level.titleOf(key), entry.getValue(),
+                    totals.get(key).getMinorUnits(), below, leafFactory));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.expensetracker.patterns.iterator;
+
+import com.example.expensetracker.analytics.ExpenseColumns;
+import com.example.expensetracker.data.EpochDays;
+import com.example.expensetracker.model.Expense;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams the rows of an ExpenseColumns snapshot that match a filter. The
+ * filter is pushed down to the buffers: a category filter walks only that
+ * category's posting list, a date range outside the snapshot's span yields
+ * nothing without a scan, and every other check compares ints. The primitive
+ * cursors read just the one column they return, so walking years of amounts
+ * allocates nothing. next() returns the expense a row was built from.
+ * Fail-fast: adding rows to the snapshot mid-iteration makes the next read
+ * throw ConcurrentModificationException.
+ */
+public class ColumnarExpenseIterator implements ExpenseIterator {
+
+    private final ExpenseColumns columns;
+    private final ExpenseFilter filter;
+    // Rows of the filtered category, or null to visit every row
+    private final int[] candidates;
+    private final int end;
+    private int position;
+    // Next matching row, or -1 when there is none
+    private int nextRow = -1;
+    private final int expectedModCount;
+
+    public ColumnarExpenseIterator(ExpenseColumns columns) {
+        this(columns, ExpenseFilter.ALL);
+    }
+
+    public ColumnarExpenseIterator(ExpenseColumns columns, ExpenseFilter filter) {
+        this.columns = columns;
+        this.filter = filter;
+        this.expectedModCount = columns.modCount();
+        this.candidates = filter.hasCategory() ? columns.rowsInCategory(filter.getCategoryId()) : null;
+        int maxDay = columns.maxEpochDay();
+        boolean outsideSpan = filter.getFromEpochDay() > EpochDays.UNKNOWN
+                && (maxDay == EpochDays.UNKNOWN
+                || filter.getFromEpochDay() > maxDay || filter.getToEpochDay() < columns.minEpochDay());
+        this.end = outsideSpan ? 0 : candidates != null ? candidates.length : columns.size();
+        advance();
+    }
+
+    private void advance() {
+        while (position < end) {
+            int row = candidates != null ? candidates[position] : position;
+            position++;
+            if (filter.matchesDay(columns.epochDayAt(row))) {
+                nextRow = row;
+                return;
+            }
+        }
+        nextRow = -1;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextRow >= 0;
+    }
+
+    /**
+     * Moves past the next matching row and returns its index, for reading
+     * several columns of it from the snapshot.
+     */
+    public int nextRow() {
+        if (columns.modCount() != expectedModCount) {
+            throw new ConcurrentModificationException("Expense snapshot changed during iteration");
+        }
+        int row = nextRow;
+        if (row < 0) {
+            throw new NoSuchElementException("No more elements in the expense snapshot.");
+        }
+        advance();
+        return row;
+    }
+
+    @Override
+    public Expense next() {
+        int row = nextRow();
+        Expense expense = columns.expenseAt(row);
+        if (expense == null) {
+            throw new IllegalStateException("Row " + row + " was added from values; use the primitive cursors");
+        }
+        return expense;
+    }
+
+    @Override
+    public long nextAmountCents() {
+        return columns.amountCentsAt(nextRow());
+    }
+
+    @Override
+    public int nextEpochDay() {
+        return columns.epochDayAt(nextRow());
+    }
+
+    @Override
+    public int nextCategoryId() {
+        return columns.categoryIdAt(nextRow());
+    }
+}
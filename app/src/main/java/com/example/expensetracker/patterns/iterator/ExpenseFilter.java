@@ -0,0 +1,66 @@
+package com.example.expensetracker.patterns.iterator;
+
+import com.example.expensetracker.analytics.CategoryDictionary;
+import com.example.expensetracker.data.EpochDays;
+import com.example.expensetracker.model.Expense;
+
+/**
+ * Which expenses an iterator yields: optionally one category and an inclusive
+ * range of epoch days. Immutable; start from ALL and narrow it. Columnar
+ * iterators apply it to their buffers, so rows that don't match are skipped
+ * without being read as objects.
+ */
+public final class ExpenseFilter {
+    private static final int ANY_CATEGORY = Integer.MIN_VALUE;
+
+    public static final ExpenseFilter ALL = new ExpenseFilter(ANY_CATEGORY, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+    private final int categoryId;
+    private final int fromEpochDay;
+    private final int toEpochDay;
+
+    private ExpenseFilter(int categoryId, int fromEpochDay, int toEpochDay) {
+        this.categoryId = categoryId;
+        this.fromEpochDay = fromEpochDay;
+        this.toEpochDay = toEpochDay;
+    }
+
+    // Case-insensitive; a category that has never been seen matches nothing
+    public ExpenseFilter inCategory(String category) {
+        return new ExpenseFilter(CategoryDictionary.getInstance().find(category), fromEpochDay, toEpochDay);
+    }
+
+    // Inclusive; undated expenses never fall in a range
+    public ExpenseFilter between(int fromEpochDay, int toEpochDay) {
+        return new ExpenseFilter(categoryId, Math.max(fromEpochDay, EpochDays.UNKNOWN + 1), toEpochDay);
+    }
+
+    public boolean hasCategory() {
+        return categoryId != ANY_CATEGORY;
+    }
+
+    // Only meaningful when hasCategory(); CategoryDictionary.NOT_FOUND matches nothing
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    public int getFromEpochDay() {
+        return fromEpochDay;
+    }
+
+    public int getToEpochDay() {
+        return toEpochDay;
+    }
+
+    public boolean matchesDay(int epochDay) {
+        return epochDay >= fromEpochDay && epochDay <= toEpochDay;
+    }
+
+    public boolean matches(int categoryId, int epochDay) {
+        return (this.categoryId == ANY_CATEGORY || this.categoryId == categoryId) && matchesDay(epochDay);
+    }
+
+    public boolean matches(Expense expense) {
+        return matches(expense.getCategoryId(), expense.getEpochDay());
+    }
+}
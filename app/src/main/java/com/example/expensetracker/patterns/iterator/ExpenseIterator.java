@@ -1,14 +1,11 @@
 package com.example.expensetracker.patterns.iterator;
 
-import com.example.expensetracker.MainActivity;
-
-// We need to import the ExpenseItem class, which is a nested class in MainActivity.
-// For this to work, ExpenseItem must be declared as public static.
-import com.example.expensetracker.MainActivity.ExpenseItem;
+import com.example.expensetracker.model.Expense;
 
 /**
- * Public interface for iterating over a collection of ExpenseItems.
- * This decouples the client from the concrete implementation of the collection.
+ * Public interface for iterating over a collection of expenses.
+ * This decouples the client from the concrete implementation of the collection,
+ * whether that is a list of objects or a columnar snapshot.
  */
 public interface ExpenseIterator {
     /**
@@ -18,8 +15,25 @@ public interface ExpenseIterator {
     boolean hasNext();
 
     /**
-     * Retrieves the next ExpenseItem from the collection.
-     * @return The next ExpenseItem, or null if there are no more elements.
+     * Retrieves the next Expense from the collection.
+     * @return The next Expense.
+     * @throws java.util.NoSuchElementException if there are no more elements.
      */
-    ExpenseItem next();
+    Expense next();
+
+    // Primitive cursors: each one moves past one expense and returns a single
+    // field of it. Columnar iterators read the field from their buffers
+    // without touching the object; these defaults go through next().
+
+    default long nextAmountCents() {
+        return next().getAmountCents();
+    }
+
+    default int nextEpochDay() {
+        return next().getEpochDay();
+    }
+
+    default int nextCategoryId() {
+        return next().getCategoryId();
+    }
 }
@@ -1,38 +1,42 @@
 package com.example.expensetracker.patterns.iterator;
 
-import com.example.expensetracker.MainActivity.ExpenseItem;
+import com.example.expensetracker.model.Expense;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 
 /**
- * A concrete implementation of ExpenseIterator for a List of ExpenseItems.
+ * A concrete implementation of ExpenseIterator for a List of Expenses.
  * This class encapsulates the logic for traversing the list.
+ * Fail-fast: if a modifiable list is structurally changed mid-iteration,
+ * next() throws ConcurrentModificationException instead of skipping or
+ * repeating rows. Iterate an ExpenseSnapshot to be safe from changes.
  */
 public class ExpenseListIterator implements ExpenseIterator {
 
-    private final List<ExpenseItem> items;
-    private int position = 0;
+    // The list's own iterator, which tracks its modification count
+    private final Iterator<Expense> expenses;
 
     /**
      * Constructor that takes the collection to be iterated over.
-     * @param items The list of ExpenseItem objects.
+     * @param expenses The list of Expense objects.
      */
-    public ExpenseListIterator(List<ExpenseItem> items) {
-        this.items = items;
+    public ExpenseListIterator(List<Expense> expenses) {
+        this.expenses = expenses.iterator();
     }
 
     @Override
     public boolean hasNext() {
-        return position < items.size();
+        return expenses.hasNext();
     }
 
     @Override
-    public ExpenseItem next() {
+    public Expense next() {
         if (!hasNext()) {
             // Throwing an exception is standard practice for iterators.
             throw new NoSuchElementException("No more elements in the expense list.");
         }
-        return items.get(position++);
+        return expenses.next();
     }
 }
@@ -1,36 +1,30 @@
 package com.example.expensetracker.patterns.memento;
 
-import com.example.expensetracker.MainActivity;
+import com.example.expensetracker.model.Expense;
 
 /**
  * The Memento: Holds the state of an Expense object.
- * It stores a copy of the state so that the original object's state can be restored.
+ * Expense is immutable, so holding a reference is enough to restore it later.
  */
 public class ExpenseMemento {
     // The state is stored as an Expense object.
     // It's 'final' to ensure it's immutable once the memento is created.
-    private final MainActivity.Expense savedState;
+    private final Expense savedState;
 
     /**
      * The Memento's constructor. It takes the state to save.
      * @param stateToSave The Expense state to save.
      */
-    public ExpenseMemento(MainActivity.Expense stateToSave) {
-        // Create a *new* Expense object to ensure the state is a true copy
-        // and not just a reference to a mutable object in the activity.
-        this.savedState = new MainActivity.Expense(
-                stateToSave.getDescription(),
-                stateToSave.getAmount(),
-                stateToSave.getCategory(),
-                stateToSave.getDate()
-        );
+    public ExpenseMemento(Expense stateToSave) {
+        // No copy needed: nothing can change the saved Expense afterwards
+        this.savedState = stateToSave;
     }
 
     /**
      * The method for the Caretaker (AddExpenseActivity) to retrieve the saved state.
      * @return The saved Expense state.
      */
-    public MainActivity.Expense getSavedState() {
+    public Expense getSavedState() {
         return savedState;
     }
 }
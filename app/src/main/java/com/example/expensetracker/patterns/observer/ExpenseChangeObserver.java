@@ -0,0 +1,10 @@
+package com.example.expensetracker.patterns.observer;
+
+/**
+ * OBSERVER PATTERN:
+ * Delta-aware observer contract. Instead of the full list, observers receive
+ * only what changed, keyed by expense ID, plus the snapshot version.
+ */
+public interface ExpenseChangeObserver {
+    void onExpensesChanged(ExpenseChangeSet changes);
+}
@@ -0,0 +1,131 @@
+package com.example.expensetracker.patterns.observer;
+
+import com.example.expensetracker.model.Expense;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * OBSERVER PATTERN:
+ * An immutable set of changes keyed by expense ID, tagged with the repository
+ * version it brings an observer up to. Observers patch only the affected rows
+ * and can skip change sets whose version they have already applied.
+ */
+public final class ExpenseChangeSet {
+    private final long version;
+    private final Map<String, Expense> inserted;
+    private final Map<String, Expense> updated;
+    private final Set<String> removed;
+    // Moved ID -> ID of the child now preceding it (null when it moved to the front)
+    private final Map<String, String> moved;
+
+    private ExpenseChangeSet(Builder builder, long version) {
+        this.version = version;
+        this.inserted = Collections.unmodifiableMap(new LinkedHashMap<>(builder.inserted));
+        this.updated = Collections.unmodifiableMap(new LinkedHashMap<>(builder.updated));
+        this.removed = Collections.unmodifiableSet(new LinkedHashSet<>(builder.removed));
+        this.moved = Collections.unmodifiableMap(new LinkedHashMap<>(builder.moved));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Map<String, Expense> getInserted() {
+        return inserted;
+    }
+
+    public Map<String, Expense> getUpdated() {
+        return updated;
+    }
+
+    public Set<String> getRemoved() {
+        return removed;
+    }
+
+    public Map<String, String> getMoved() {
+        return moved;
+    }
+
+    public boolean isEmpty() {
+        return inserted.isEmpty() && updated.isEmpty() && removed.isEmpty() && moved.isEmpty();
+    }
+
+    public int size() {
+        return inserted.size() + updated.size() + removed.size() + moved.size();
+    }
+
+    @Override
+    public String toString() {
+        return "ExpenseChangeSet{v" + version
+                + " +" + inserted.size()
+                + " ~" + updated.size()
+                + " -" + removed.size()
+                + " >" + moved.size() + "}";
+    }
+
+    /**
+     * Collects changes for one expense ID at a time and folds repeated
+     * changes to the same ID into the net effect (e.g. insert + remove = nothing).
+     */
+    public static class Builder {
+        private final Map<String, Expense> inserted = new LinkedHashMap<>();
+        private final Map<String, Expense> updated = new LinkedHashMap<>();
+        private final Set<String> removed = new LinkedHashSet<>();
+        private final Map<String, String> moved = new LinkedHashMap<>();
+
+        public Builder insert(Expense expense) {
+            String expenseId = expense.getId();
+            if (removed.remove(expenseId)) {
+                // Removed and re-added within the same set: net effect is an update
+                updated.put(expenseId, expense);
+            } else {
+                inserted.put(expenseId, expense);
+            }
+            return this;
+        }
+
+        public Builder update(Expense expense) {
+            String expenseId = expense.getId();
+            if (inserted.containsKey(expenseId)) {
+                inserted.put(expenseId, expense);
+            } else {
+                updated.put(expenseId, expense);
+            }
+            return this;
+        }
+
+        public Builder remove(String expenseId) {
+            moved.remove(expenseId);
+            updated.remove(expenseId);
+            if (inserted.remove(expenseId) == null) {
+                removed.add(expenseId);
+            }
+            return this;
+        }
+
+        public Builder move(String expenseId, String previousExpenseId) {
+            moved.put(expenseId, previousExpenseId);
+            return this;
+        }
+
+        public Builder addAll(ExpenseChangeSet changes) {
+            for (String expenseId : changes.removed) remove(expenseId);
+            for (Expense expense : changes.inserted.values()) insert(expense);
+            for (Expense expense : changes.updated.values()) update(expense);
+            for (Map.Entry<String, String> e : changes.moved.entrySet()) move(e.getKey(), e.getValue());
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return inserted.isEmpty() && updated.isEmpty() && removed.isEmpty() && moved.isEmpty();
+        }
+
+        public ExpenseChangeSet build(long version) {
+            return new ExpenseChangeSet(this, version);
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package com.example.expensetracker.patterns.observer;
 
-import com.example.expensetracker.MainActivity;
+import com.example.expensetracker.model.Expense;
 import java.util.List;
 
 public interface ExpenseObserver {
-    void onExpensesUpdated(List<MainActivity.Expense> expenses);
+    void onExpensesUpdated(List<Expense> expenses);
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.example.expensetracker.patterns.observer;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Immutable view of how far back ExpenseRepository has paged. Expenses are
+ * loaded newest first; older pages are requested with loadOlderExpenses().
+ */
+public final class ExpensePageCursor {
+    @Nullable
+    private final String oldestLoadedKey;
+    private final boolean hasMore;
+    private final boolean loading;
+
+    ExpensePageCursor(@Nullable String oldestLoadedKey, boolean hasMore, boolean loading) {
+        this.oldestLoadedKey = oldestLoadedKey;
+        this.hasMore = hasMore;
+        this.loading = loading;
+    }
+
+    // Start key of the oldest loaded page; null before the first page arrives
+    // and once the full history is loaded (hasMore() is then false)
+    @Nullable
+    public String getOldestLoadedKey() {
+        return oldestLoadedKey;
+    }
+
+    // Older expenses remain on the backend
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    // A page request is in flight
+    public boolean isLoading() {
+        return loading;
+    }
+
+    @Override
+    public String toString() {
+        return "ExpensePageCursor{oldest=" + oldestLoadedKey + ", hasMore=" + hasMore + ", loading=" + loading + "}";
+    }
+}
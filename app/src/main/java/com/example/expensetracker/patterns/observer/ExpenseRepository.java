@@ -1,48 +1,189 @@
 package com.example.expensetracker.patterns.observer;
 
-import com.example.expensetracker.MainActivity;
-import com.example.expensetracker.patterns.singleton.FirebaseManager;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.example.expensetracker.analytics.RunningTotals;
+import com.example.expensetracker.data.ExpenseBackend;
+import com.example.expensetracker.data.ExpenseStore;
+import com.example.expensetracker.data.ExpenseWriteBatch;
+import com.example.expensetracker.data.FirebaseExpenseBackend;
+import com.example.expensetracker.data.InMemoryExpenseStore;
+import com.example.expensetracker.model.Expense;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.auth.FirebaseUser;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
-// This acts as the "Subject" in the Observer Pattern
+/**
+ * This acts as the "Subject" in the Observer Pattern.
+ *
+ * The model lives on the main thread. Writes, backend callbacks and observer
+ * registration may come from any thread: they are marshalled onto the main
+ * thread, so observers are always called there, in version order.
+ *
+ * Change sets are coalesced: changes made within one notification window (a
+ * frame, by default) reach observers as a single change set carrying the
+ * latest version, so a burst of writes costs one UI update.
+ */
 public class ExpenseRepository {
-    private static ExpenseRepository instance;
-    private final List<ExpenseObserver> observers = new ArrayList<>();
-    private DatabaseReference databaseReference;
+    private static final String TAG = "ExpenseRepository";
+    // Expenses per backend page; the newest page is loaded first
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    // One display frame at 60 Hz
+    public static final long DEFAULT_NOTIFICATION_WINDOW_MILLIS = 16;
+
+    // Runs work on the main thread after a delay
+    interface DelayedExecutor {
+        void executeDelayed(Runnable action, long delayMillis);
+    }
+
+    // Written under the class lock, read without it
+    private static volatile ExpenseRepository instance;
+    // Weak and copy-on-write: a screen that never unregisters can still be collected,
+    // and registering never races a dispatch in progress
+    private final WeakObserverList<ExpenseObserver> observers = new WeakObserverList<>();
+    private final WeakObserverList<ExpenseChangeObserver> changeObservers = new WeakObserverList<>();
+
+    // Local store I/O and backend writes run here, in submission order
+    private final Executor ioExecutor;
+    // The model and all observer callbacks live on this (main) thread
+    private final Executor mainExecutor;
+    private final BooleanSupplier isMainThread;
+    private final DelayedExecutor delayedMainExecutor;
+
+    // In-memory model, rendered from the local store first and reconciled with the backend.
+    private final Map<String, Expense> expenses = new LinkedHashMap<>();
+    // Bumped on every applied change; observers use it to skip work they already did.
+    // Only written on the main thread; volatile so getVersion() can be read anywhere.
+    private volatile long version = 0;
+    // Changes not yet delivered; null when nothing is waiting for the window to close
+    private ExpenseChangeSet.Builder pendingChanges;
+    // 0 delivers every change set as soon as it is made
+    private long notificationWindowMillis;
+    private long deliveredNotifications;
+    private long mergedNotifications;
+    // Bumped on every change to the model
+    private int modCount;
+    // Copy-on-write view of the model; rebuilt on the first read after a change
+    private ExpenseSnapshot snapshot = ExpenseSnapshot.EMPTY;
+    private int snapshotModCount;
+    // Updated alongside the model, so summary figures never need a full pass
+    private final RunningTotals runningTotals = new RunningTotals();
+
+    private ExpenseStore store;
+    private ExpenseBackend backend;
+    private final ExpenseBackend.Listener remoteListener = new RemoteListener();
+    private final int pageSize;
+    // Paging state: start key of the oldest loaded page; null before the first
+    // page arrives, and again once the oldest page (hasMorePages false) is in
+    private String oldestLoadedKey;
+    private boolean hasMorePages = true;
+    private boolean pageLoading;
 
     private ExpenseRepository() {
-        // Don't initialize databaseReference here - user may not be logged in yet
+        this(Executors.newSingleThreadExecutor(), new Handler(Looper.getMainLooper()), DEFAULT_PAGE_SIZE);
     }
 
-    public static synchronized ExpenseRepository getInstance() {
-        if (instance == null) {
-            instance = new ExpenseRepository();
-        }
-        return instance;
+    private ExpenseRepository(Executor ioExecutor, Handler mainHandler, int pageSize) {
+        this(ioExecutor, mainHandler::post, pageSize, () -> Looper.myLooper() == Looper.getMainLooper(),
+                mainHandler::postDelayed);
+        this.notificationWindowMillis = DEFAULT_NOTIFICATION_WINDOW_MILLIS;
+    }
+
+    // Lets JVM tests run everything on the calling thread; change sets are not coalesced
+    ExpenseRepository(Executor ioExecutor, Executor mainExecutor, int pageSize) {
+        this(ioExecutor, mainExecutor, pageSize, () -> true);
+    }
+
+    // isMainThread tells whether the caller is already on mainExecutor's thread
+    ExpenseRepository(Executor ioExecutor, Executor mainExecutor, int pageSize, BooleanSupplier isMainThread) {
+        this(ioExecutor, mainExecutor, pageSize, isMainThread, (action, delayMillis) -> mainExecutor.execute(action));
     }
 
-    // Initialize the database reference when we know user is logged in
-    private DatabaseReference getDatabaseReference() {
-        if (databaseReference == null) {
-            if (FirebaseAuth.getInstance().getCurrentUser() != null) {
-                String userId = FirebaseAuth.getInstance().getCurrentUser().getUid();
-                databaseReference = FirebaseManager.getInstance().getDatabase().getReference("expenses").child(userId);
+    ExpenseRepository(Executor ioExecutor, Executor mainExecutor, int pageSize, BooleanSupplier isMainThread,
+                      DelayedExecutor delayedMainExecutor) {
+        this.ioExecutor = ioExecutor;
+        this.mainExecutor = mainExecutor;
+        this.pageSize = pageSize;
+        this.isMainThread = isMainThread;
+        this.delayedMainExecutor = delayedMainExecutor;
+    }
+
+    public static ExpenseRepository getInstance() {
+        ExpenseRepository current = instance;
+        if (current != null) {
+            return current;
+        }
+        synchronized (ExpenseRepository.class) {
+            if (instance == null) {
+                instance = new ExpenseRepository();
             }
+            return instance;
         }
-        return databaseReference;
     }
 
     // Reset the instance when user logs out (call this from logout)
     public static synchronized void resetInstance() {
+        ExpenseRepository closing = instance;
         instance = null;
+        if (closing != null) {
+            closing.runOnMainThread(closing::close);
+        }
+    }
+
+    // Runs inline when already on the main thread, so callers there see the effect at once
+    private void runOnMainThread(Runnable action) {
+        if (isMainThread.getAsBoolean()) {
+            action.run();
+        } else {
+            mainExecutor.execute(action);
+        }
+    }
+
+    // Inline on the main thread; from any other thread, waits for the main thread to run it
+    private <T> T callOnMainThread(Supplier<T> read) {
+        if (isMainThread.getAsBoolean()) {
+            return read.get();
+        }
+        FutureTask<T> task = new FutureTask<>(read::get);
+        mainExecutor.execute(task);
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the main thread", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
     }
 
     // --- Observer Management Methods ---
+    // Safe to call from any thread; callbacks always arrive on the main thread.
+    // Observers are held weakly: the caller keeps a reference for as long as it
+    // wants callbacks (a field, not a lambda passed straight in).
+
     public void addObserver(ExpenseObserver observer) {
         observers.add(observer);
     }
@@ -51,31 +192,644 @@ public class ExpenseRepository {
         observers.remove(observer);
     }
 
-    private void notifyObservers(List<MainActivity.Expense> expenses) {
+    public void addChangeObserver(ExpenseChangeObserver observer) {
+        // Registered on the main thread together with the replay, so no change
+        // set can fall between the two
+        runOnMainThread(() -> {
+            // Existing observers catch up first; the replay already includes these changes
+            flushPendingChanges();
+            changeObservers.add(observer);
+            // Late subscribers (e.g. a recreated Activity) get the current model replayed
+            // as one insert-only change set, so they never need to fetch the subtree themselves.
+            if (!expenses.isEmpty()) {
+                ExpenseChangeSet.Builder replay = new ExpenseChangeSet.Builder();
+                for (Expense expense : expenses.values()) {
+                    replay.insert(expense);
+                }
+                observer.onExpensesChanged(replay.build(version));
+            }
+        });
+    }
+
+    /**
+     * Registers the observer for as long as the owner's lifecycle lasts; it is
+     * removed when the owner is destroyed. Ignored if the owner is already
+     * destroyed. Call on the main thread, like any Lifecycle method.
+     */
+    public void addChangeObserver(LifecycleOwner owner, ExpenseChangeObserver observer) {
+        Lifecycle lifecycle = owner.getLifecycle();
+        if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) return;
+        addChangeObserver(observer);
+        lifecycle.addObserver(new DefaultLifecycleObserver() {
+            @Override
+            public void onDestroy(LifecycleOwner source) {
+                removeChangeObserver(observer);
+                source.getLifecycle().removeObserver(this);
+            }
+        });
+    }
+
+    /**
+     * Observers of either kind that are still registered and reachable.
+     * Collected observers stop counting straight away and are purged on the
+     * next notification.
+     */
+    public int getObserverCount() {
+        return observers.size() + changeObservers.size();
+    }
+
+    /**
+     * Stops callbacks to the observer. Called on the main thread, no callback
+     * arrives after this returns; from another thread, one already running on
+     * the main thread may still finish.
+     */
+    public void removeChangeObserver(ExpenseChangeObserver observer) {
+        changeObservers.remove(observer);
+        if (!isMainThread.getAsBoolean()) {
+            // An add from this thread may still be queued; remove again behind it
+            mainExecutor.execute(() -> changeObservers.remove(observer));
+        }
+    }
+
+    private void notifyObservers(List<Expense> expenses) {
         for (ExpenseObserver observer : observers) {
             observer.onExpensesUpdated(expenses);
         }
     }
 
+    private void notifyChanged(ExpenseChangeSet.Builder changes) {
+        if (changes.isEmpty()) return;
+        ++version;
+        if (notificationWindowMillis <= 0) {
+            dispatch(changes.build(version));
+        } else if (pendingChanges == null) {
+            pendingChanges = changes;
+            delayedMainExecutor.executeDelayed(this::flushPendingChanges, notificationWindowMillis);
+        } else {
+            // Folded into the pending set; superseded values of the same expense are dropped
+            pendingChanges.addAll(changes.build(version));
+            mergedNotifications++;
+        }
+    }
+
+    /**
+     * Delivers changes still waiting for the notification window to close,
+     * as one change set at the current version. Call on the main thread.
+     */
+    public void flushPendingChanges() {
+        ExpenseChangeSet.Builder changes = pendingChanges;
+        if (changes == null) return;
+        pendingChanges = null;
+        // An insert and a remove of the same expense cancel out to nothing
+        if (!changes.isEmpty()) {
+            dispatch(changes.build(version));
+        }
+    }
+
+    private void dispatch(ExpenseChangeSet changeSet) {
+        deliveredNotifications++;
+        for (ExpenseChangeObserver observer : changeObservers) {
+            observer.onExpensesChanged(changeSet);
+        }
+    }
+
+    /**
+     * How long changes are collected before observers hear about them, in
+     * milliseconds; 0 delivers each change set at once. Call on the main thread.
+     */
+    public void setNotificationWindow(long windowMillis) {
+        if (windowMillis < 0) {
+            throw new IllegalArgumentException("Notification window must not be negative: " + windowMillis);
+        }
+        notificationWindowMillis = windowMillis;
+        if (windowMillis == 0) {
+            flushPendingChanges();
+        }
+    }
+
+    // Change sets delivered to observers
+    public long getDeliveredNotificationCount() {
+        return deliveredNotifications;
+    }
+
+    // Change sets folded into a pending one instead of being delivered on their own
+    public long getMergedNotificationCount() {
+        return mergedNotifications;
+    }
+
+    // --- Lifecycle ---
+
+    /**
+     * Renders from the local store straight away, then starts the backend sync,
+     * which reconciles remote state into the model and the store in the background.
+     */
+    public void open(ExpenseStore store, ExpenseBackend backend) {
+        runOnMainThread(() -> openOnMainThread(store, backend));
+    }
+
+    private void openOnMainThread(ExpenseStore store, ExpenseBackend backend) {
+        close();
+        this.store = store;
+        this.backend = backend;
+        ioExecutor.execute(() -> {
+            Map<String, Expense> local;
+            try {
+                local = store.loadAll();
+            } catch (IOException e) {
+                Log.e(TAG, "Failed to read the local expense store", e);
+                local = new LinkedHashMap<>();
+            }
+            Map<String, Expense> loaded = local;
+            mainExecutor.execute(() -> onLocalStoreLoaded(store, loaded));
+        });
+    }
+
+    private void onLocalStoreLoaded(ExpenseStore loadedStore, Map<String, Expense> local) {
+        if (loadedStore != store) return; // Closed or reopened in the meantime
+
+        ExpenseChangeSet.Builder changes = new ExpenseChangeSet.Builder();
+        for (Map.Entry<String, Expense> entry : local.entrySet()) {
+            // Anything written since open() is newer than the stored copy
+            if (!expenses.containsKey(entry.getKey())) {
+                expenses.put(entry.getKey(), entry.getValue());
+                modCount++;
+                runningTotals.add(entry.getValue());
+                changes.insert(entry.getValue());
+            }
+        }
+        notifyChanged(changes);
+
+        pageLoading = true;
+        backend.start(pageSize, new MainThreadListener(backend, remoteListener));
+    }
+
+    public boolean isOpen() {
+        return store != null;
+    }
+
+    // Call on the main thread
+    public void close() {
+        // Observers get what was applied before the model is cleared
+        flushPendingChanges();
+        if (backend != null) {
+            backend.stop();
+        }
+        if (store != null) {
+            ExpenseStore closing = store;
+            ioExecutor.execute(closing::close);
+        }
+        store = null;
+        backend = null;
+        oldestLoadedKey = null;
+        hasMorePages = true;
+        pageLoading = false;
+        // Observers that outlive the session see its expenses go, now rather than after
+        // the notification window, so nothing renders the signed-out user's rows
+        ExpenseChangeSet.Builder changes = new ExpenseChangeSet.Builder();
+        clearInto(changes);
+        notifyChanged(changes);
+        flushPendingChanges();
+    }
+
     // --- Data Methods ---
+
+    /**
+     * Publishes the current model to list observers. Opens a non-persistent
+     * session for the signed-in user if nobody has opened the repository yet.
+     */
     public void loadExpenses() {
-        DatabaseReference dbRef = getDatabaseReference();
-        if (dbRef == null) {
+        runOnMainThread(this::loadExpensesOnMainThread);
+    }
+
+    private void loadExpensesOnMainThread() {
+        if (isOpen()) {
+            notifyObservers(getExpenses());
+            return;
+        }
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        if (user == null) {
             // User not logged in, nothing to load
             return;
         }
-        dbRef.get().addOnCompleteListener(task -> {
-            if (task.isSuccessful()) {
-                List<MainActivity.Expense> expenseList = new ArrayList<>();
-                for (DataSnapshot snapshot : task.getResult().getChildren()) {
-                    MainActivity.Expense expense = snapshot.getValue(MainActivity.Expense.class);
-                    if (expense != null) {
-                        expenseList.add(expense);
+        open(new InMemoryExpenseStore(), FirebaseExpenseBackend.forUser(user.getUid()));
+    }
+
+    /**
+     * Where paging stands. Expenses older than the cursor that are shown come from
+     * the local store and are reconciled when their page is loaded.
+     * Off the main thread, waits for the main thread to read it.
+     */
+    public ExpensePageCursor getPageCursor() {
+        return callOnMainThread(() -> new ExpensePageCursor(oldestLoadedKey, hasMorePages, pageLoading));
+    }
+
+    /**
+     * Requests the next older page from the backend. Returns false if there is
+     * nothing to request: not open, a page is already in flight, or no older
+     * expenses remain. Loaded expenses arrive as ordinary change sets.
+     * Off the main thread, waits for the main thread to decide.
+     */
+    public boolean loadOlderExpenses() {
+        return callOnMainThread(this::loadOlderPage);
+    }
+
+    private boolean loadOlderPage() {
+        if (backend == null || pageLoading || !hasMorePages || oldestLoadedKey == null) {
+            return false;
+        }
+        pageLoading = true;
+        backend.loadPageBefore(oldestLoadedKey, pageSize);
+        return true;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * The current model as an immutable snapshot. Repeated calls between
+     * changes return the same instance, so reading is free until the model
+     * changes; the first read after a change copies it once. Off the main
+     * thread, waits for the main thread to take it; the snapshot itself can
+     * then be used on any thread.
+     */
+    public ExpenseSnapshot getSnapshot() {
+        return callOnMainThread(this::snapshot);
+    }
+
+    private ExpenseSnapshot snapshot() {
+        if (snapshotModCount != modCount) {
+            snapshot = new ExpenseSnapshot(version, new ArrayList<>(expenses.values()));
+            snapshotModCount = modCount;
+        } else if (snapshot.getVersion() != version) {
+            snapshot = snapshot.withVersion(version);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the current in-memory model, as an unmodifiable point-in-time
+     * list; see getSnapshot().
+     */
+    public List<Expense> getExpenses() {
+        return getSnapshot().getExpenses();
+    }
+
+    /**
+     * Totals maintained on every mutation. Read on the main thread.
+     */
+    public RunningTotals getRunningTotals() {
+        return runningTotals;
+    }
+
+    // Off the main thread, waits for the main thread to look it up
+    @Nullable
+    public Expense getExpense(String expenseId) {
+        return callOnMainThread(() -> expenses.get(expenseId));
+    }
+
+    // --- Write Methods ---
+    // Writes are applied to the model and the local store right away (offline-first),
+    // then sent to the backend. A rejected write is rolled back locally.
+    // Callable from any thread; the model update and the callback run on the main
+    // thread, the store and backend I/O on the I/O executor.
+
+    // The expense carries its own ID; new expenses take theirs from newExpenseId()
+    public void addExpense(Expense expense, @Nullable ExpenseBackend.WriteCallback callback) {
+        runOnMainThread(() -> put(expense, callback));
+    }
+
+    public void updateExpense(Expense expense, @Nullable ExpenseBackend.WriteCallback callback) {
+        runOnMainThread(() -> put(expense, callback));
+    }
+
+    private void put(Expense expense, @Nullable ExpenseBackend.WriteCallback callback) {
+        if (backend == null) {
+            fail(callback);
+            return;
+        }
+        String expenseId = expense.getId();
+        Expense previous = expenses.get(expenseId);
+        applyUpsert(expense);
+        send(target -> target.put(expense, error -> runOnMainThread(() -> {
+            if (error != null) restore(expenseId, previous);
+            complete(callback, error);
+        })));
+    }
+
+    public void deleteExpense(String expenseId, @Nullable ExpenseBackend.WriteCallback callback) {
+        runOnMainThread(() -> remove(expenseId, callback));
+    }
+
+    private void remove(String expenseId, @Nullable ExpenseBackend.WriteCallback callback) {
+        if (backend == null || expenseId == null) {
+            fail(callback);
+            return;
+        }
+        Expense previous = expenses.get(expenseId);
+        applyRemove(expenseId);
+        send(target -> target.remove(expenseId, error -> runOnMainThread(() -> {
+            if (error != null) restore(expenseId, previous);
+            complete(callback, error);
+        })));
+    }
+
+    public void deleteAllExpenses(@Nullable ExpenseBackend.WriteCallback callback) {
+        runOnMainThread(() -> removeAll(callback));
+    }
+
+    private void removeAll(@Nullable ExpenseBackend.WriteCallback callback) {
+        if (backend == null) {
+            fail(callback);
+            return;
+        }
+        Map<String, Expense> previous = new LinkedHashMap<>(expenses);
+        ExpenseChangeSet.Builder changes = new ExpenseChangeSet.Builder();
+        clearInto(changes);
+        persist(ExpenseStore::clear);
+        notifyChanged(changes);
+        send(target -> target.removeAll(error -> runOnMainThread(() -> {
+            if (error != null) {
+                // Restored as one change set, like the removal it undoes
+                ExpenseChangeSet.Builder rollback = new ExpenseChangeSet.Builder();
+                for (Expense expense : previous.values()) {
+                    upsertInto(expense, rollback);
+                }
+                notifyChanged(rollback);
+            }
+            complete(callback, error);
+        })));
+    }
+
+    /**
+     * A fresh expense ID to create a new Expense with; null if the repository
+     * is not open.
+     */
+    @Nullable
+    public String newExpenseId() {
+        return backend != null ? backend.newExpenseId() : null;
+    }
+
+    /**
+     * Applies every write in the batch locally as one change set, then sends it to
+     * the backend as a single atomic update. If the backend rejects it, the whole
+     * batch is rolled back, again as one change set.
+     */
+    public void applyBatch(ExpenseWriteBatch batch, @Nullable ExpenseWriteBatch.Callback callback) {
+        runOnMainThread(() -> apply(batch, callback));
+    }
+
+    private void apply(ExpenseWriteBatch batch, @Nullable ExpenseWriteBatch.Callback callback) {
+        if (backend == null) {
+            completeBatch(batch, callback, new IllegalStateException("Expense repository is not open"));
+            return;
+        }
+        if (batch.isEmpty()) {
+            completeBatch(batch, callback, null);
+            return;
+        }
+        Map<String, Expense> previous = new LinkedHashMap<>();
+        ExpenseChangeSet.Builder changes = new ExpenseChangeSet.Builder();
+        for (Map.Entry<String, Expense> write : batch.getWrites().entrySet()) {
+            String expenseId = write.getKey();
+            previous.put(expenseId, expenses.get(expenseId));
+            if (write.getValue() == null) {
+                removeInto(expenseId, changes);
+            } else {
+                upsertInto(write.getValue(), changes);
+            }
+        }
+        notifyChanged(changes);
+
+        send(target -> target.applyBatch(batch, error -> runOnMainThread(() -> {
+            if (error != null) {
+                ExpenseChangeSet.Builder rollback = new ExpenseChangeSet.Builder();
+                for (Map.Entry<String, Expense> entry : previous.entrySet()) {
+                    if (entry.getValue() == null) {
+                        removeInto(entry.getKey(), rollback);
+                    } else {
+                        upsertInto(entry.getValue(), rollback);
                     }
                 }
-                // Notify all observers (e.g., MainActivity) that data is ready
-                notifyObservers(expenseList);
+                notifyChanged(rollback);
+            }
+            completeBatch(batch, callback, error);
+        })));
+    }
+
+    private static void completeBatch(ExpenseWriteBatch batch, @Nullable ExpenseWriteBatch.Callback callback,
+                                      @Nullable Exception error) {
+        if (error != null) Log.w(TAG, "Expense batch of " + batch.size() + " failed", error);
+        if (callback != null) callback.onComplete(batch.results(error));
+    }
+
+    private void restore(String expenseId, @Nullable Expense previous) {
+        if (previous == null) {
+            applyRemove(expenseId);
+        } else {
+            applyUpsert(previous);
+        }
+    }
+
+    private static void fail(@Nullable ExpenseBackend.WriteCallback callback) {
+        complete(callback, new IllegalStateException("Expense repository is not open"));
+    }
+
+    private static void complete(@Nullable ExpenseBackend.WriteCallback callback, @Nullable Exception error) {
+        if (error != null) Log.w(TAG, "Expense write failed", error);
+        if (callback != null) callback.onComplete(error);
+    }
+
+    // --- Model Mutation ---
+
+    private void applyUpsert(Expense expense) {
+        ExpenseChangeSet.Builder changes = new ExpenseChangeSet.Builder();
+        upsertInto(expense, changes);
+        notifyChanged(changes);
+    }
+
+    private void applyRemove(String expenseId) {
+        ExpenseChangeSet.Builder changes = new ExpenseChangeSet.Builder();
+        removeInto(expenseId, changes);
+        notifyChanged(changes);
+    }
+
+    // Updates the model, totals and store, and records the change without notifying
+    private void upsertInto(Expense expense, ExpenseChangeSet.Builder changes) {
+        Expense previous = expenses.put(expense.getId(), expense);
+        if (expense.equals(previous)) return; // Echo of a change we already have
+        modCount++;
+
+        if (previous == null) {
+            runningTotals.add(expense);
+            changes.insert(expense);
+        } else {
+            // The model still holds the old values, so edits can be subtracted exactly
+            runningTotals.replace(previous, expense);
+            changes.update(expense);
+        }
+        persist(s -> s.put(expense));
+    }
+
+    private void removeInto(String expenseId, ExpenseChangeSet.Builder changes) {
+        Expense removed = expenses.remove(expenseId);
+        if (removed == null) return;
+        modCount++;
+        runningTotals.remove(removed);
+
+        persist(s -> s.remove(expenseId));
+        changes.remove(expenseId);
+    }
+
+    // Empties the model and totals, recording each removal; the store is left to the caller
+    private void clearInto(ExpenseChangeSet.Builder changes) {
+        if (expenses.isEmpty()) return;
+        for (String expenseId : expenses.keySet()) {
+            changes.remove(expenseId);
+        }
+        expenses.clear();
+        modCount++;
+        runningTotals.clear();
+    }
+
+    private interface StoreWrite {
+        void apply(ExpenseStore store) throws IOException;
+    }
+
+    private interface BackendWrite {
+        void send(ExpenseBackend backend);
+    }
+
+    // Queued behind the store writes of the same change, so the main thread never encodes or sends
+    private void send(BackendWrite write) {
+        ExpenseBackend target = backend;
+        ioExecutor.execute(() -> write.send(target));
+    }
+
+    private void persist(StoreWrite write) {
+        ExpenseStore target = store;
+        if (target == null) return;
+        ioExecutor.execute(() -> {
+            try {
+                write.apply(target);
+            } catch (IOException e) {
+                Log.e(TAG, "Failed to update the local expense store", e);
             }
         });
     }
-}
\ No newline at end of file
+
+    // Backends deliver on the main thread today; anything else is moved there.
+    // Callbacks still queued when their backend is closed are dropped.
+    private class MainThreadListener implements ExpenseBackend.Listener {
+        private final ExpenseBackend source;
+        private final ExpenseBackend.Listener delegate;
+
+        MainThreadListener(ExpenseBackend source, ExpenseBackend.Listener delegate) {
+            this.source = source;
+            this.delegate = delegate;
+        }
+
+        private void deliver(Runnable callback) {
+            runOnMainThread(() -> {
+                if (backend == source) callback.run();
+            });
+        }
+
+        @Override
+        public void onExpenseUpserted(Expense expense) {
+            deliver(() -> delegate.onExpenseUpserted(expense));
+        }
+
+        @Override
+        public void onExpensesLoaded(Map<String, Expense> loaded) {
+            deliver(() -> delegate.onExpensesLoaded(loaded));
+        }
+
+        @Override
+        public void onExpenseRemoved(String expenseId) {
+            deliver(() -> delegate.onExpenseRemoved(expenseId));
+        }
+
+        @Override
+        public void onExpenseMoved(String expenseId, @Nullable String previousExpenseId) {
+            deliver(() -> delegate.onExpenseMoved(expenseId, previousExpenseId));
+        }
+
+        @Override
+        public void onPageLoaded(@Nullable String startKey, @Nullable String endKey, Set<String> presentIds) {
+            deliver(() -> delegate.onPageLoaded(startKey, endKey, presentIds));
+        }
+
+        @Override
+        public void onSyncError(Exception error) {
+            deliver(() -> delegate.onSyncError(error));
+        }
+    }
+
+    // Runs on the main thread
+    private class RemoteListener implements ExpenseBackend.Listener {
+        @Override
+        public void onExpenseUpserted(Expense expense) {
+            applyUpsert(expense);
+        }
+
+        @Override
+        public void onExpensesLoaded(Map<String, Expense> loaded) {
+            // A decoded page lands as one change set, so observers render it once
+            ExpenseChangeSet.Builder changes = new ExpenseChangeSet.Builder();
+            for (Expense expense : loaded.values()) {
+                upsertInto(expense, changes);
+            }
+            notifyChanged(changes);
+        }
+
+        @Override
+        public void onExpenseRemoved(String expenseId) {
+            applyRemove(expenseId);
+        }
+
+        @Override
+        public void onExpenseMoved(String expenseId, @Nullable String previousExpenseId) {
+            // The model keeps key order; just let observers know.
+            if (expenses.containsKey(expenseId)) {
+                notifyChanged(new ExpenseChangeSet.Builder().move(expenseId, previousExpenseId));
+            }
+        }
+
+        @Override
+        public void onPageLoaded(@Nullable String startKey, @Nullable String endKey, Set<String> presentIds) {
+            // Drop local copies of expenses in this page's range that were deleted
+            // remotely while we were away; older local copies wait for their own page.
+            ExpenseChangeSet.Builder changes = new ExpenseChangeSet.Builder();
+            Iterator<String> it = expenses.keySet().iterator();
+            while (it.hasNext()) {
+                String expenseId = it.next();
+                boolean inRange = (startKey == null || expenseId.compareTo(startKey) >= 0)
+                        && (endKey == null || expenseId.compareTo(endKey) < 0);
+                if (inRange && !presentIds.contains(expenseId)) {
+                    runningTotals.remove(expenses.get(expenseId));
+                    it.remove();
+                    modCount++;
+                    persist(s -> s.remove(expenseId));
+                    changes.remove(expenseId);
+                }
+            }
+
+            if (startKey == null) {
+                hasMorePages = false;
+            }
+            if (oldestLoadedKey == null || startKey == null || startKey.compareTo(oldestLoadedKey) < 0) {
+                oldestLoadedKey = startKey;
+            }
+            pageLoading = false;
+            notifyChanged(changes);
+        }
+
+        @Override
+        public void onSyncError(Exception error) {
+            // Keep serving the local copy; a failed page can be requested again
+            Log.e(TAG, "Expense sync failed", error);
+            pageLoading = false;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.expensetracker.patterns.observer;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.patterns.iterator.ExpenseIterator;
+import com.example.expensetracker.patterns.iterator.ExpenseListIterator;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A point-in-time, read-only view of the repository's expenses. The
+ * repository builds a new one after its model changes (copy on write) and
+ * never touches an old one again, so a snapshot can be iterated on any thread,
+ * for as long as needed, without locks and without rows being skipped or
+ * repeated by a sync that lands meanwhile.
+ */
+public final class ExpenseSnapshot {
+    static final ExpenseSnapshot EMPTY = new ExpenseSnapshot(0, Collections.emptyList());
+
+    private final long version;
+    private final List<Expense> expenses;
+
+    ExpenseSnapshot(long version, List<Expense> expenses) {
+        this(Collections.unmodifiableList(expenses), version);
+    }
+
+    private ExpenseSnapshot(List<Expense> unmodifiable, long version) {
+        this.version = version;
+        this.expenses = unmodifiable;
+    }
+
+    // Same expenses under a later version, e.g. after a change set that only moved rows
+    ExpenseSnapshot withVersion(long version) {
+        return new ExpenseSnapshot(expenses, version);
+    }
+
+    // The version of the last change set applied to the model this was taken from
+    public long getVersion() {
+        return version;
+    }
+
+    // Unmodifiable
+    public List<Expense> getExpenses() {
+        return expenses;
+    }
+
+    public int size() {
+        return expenses.size();
+    }
+
+    public ExpenseIterator iterator() {
+        return new ExpenseListIterator(expenses);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.expensetracker.patterns.observer;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Observer registry that holds its observers weakly, so a screen that is
+ * never unregistered can still be garbage collected. Entries whose observer
+ * has been collected are purged the next time the list is iterated.
+ *
+ * Copy-on-write: adding and removing are safe from any thread and never
+ * race an iteration in progress.
+ */
+final class WeakObserverList<T> implements Iterable<T> {
+    private final List<Reference<T>> references = new CopyOnWriteArrayList<>();
+    // Wraps each added observer; tests pass one whose references they clear themselves
+    private final Function<T, Reference<T>> referenceFactory;
+
+    WeakObserverList() {
+        this(WeakReference::new);
+    }
+
+    WeakObserverList(Function<T, Reference<T>> referenceFactory) {
+        this.referenceFactory = referenceFactory;
+    }
+
+    void add(T observer) {
+        references.add(referenceFactory.apply(observer));
+    }
+
+    // Removes one registration of the observer, like List.remove(Object)
+    boolean remove(T observer) {
+        // Another thread may remove the entry we found first; look again if so
+        while (true) {
+            Reference<T> match = null;
+            for (Reference<T> reference : references) {
+                if (observer.equals(reference.get())) {
+                    match = reference;
+                    break;
+                }
+            }
+            if (match == null) return false;
+            if (references.remove(match)) return true;
+        }
+    }
+
+    // Observers still reachable; cleared entries are not counted
+    int size() {
+        int live = 0;
+        for (Reference<T> reference : references) {
+            if (reference.get() != null) live++;
+        }
+        return live;
+    }
+
+    /**
+     * The live observers at this moment, strongly held for the duration of the
+     * iteration. Cleared entries seen on the way are dropped from the list.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        List<T> live = new ArrayList<>(references.size());
+        boolean cleared = false;
+        for (Reference<T> reference : references) {
+            T observer = reference.get();
+            if (observer == null) {
+                cleared = true;
+            } else {
+                live.add(observer);
+            }
+        }
+        if (cleared) {
+            references.removeIf(reference -> reference.get() == null);
+        }
+        return Collections.unmodifiableList(live).iterator();
+    }
+}
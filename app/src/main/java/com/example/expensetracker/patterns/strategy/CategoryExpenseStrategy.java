@@ -1,24 +1,58 @@
 package com.example.expensetracker.patterns.strategy;
 
-import com.example.expensetracker.MainActivity;
+import com.example.expensetracker.analytics.CategoryDictionary;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.MoneyAccumulator;
 
-import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 
 public class CategoryExpenseStrategy implements ExpenseCalculationStrategy {
-    private String category;
+    private final String category;
+    // Case-folded name; identifies the strategy whether or not the category has an ID yet
+    private final String key;
 
+    // Rows compare dictionary IDs. Resolved lazily and looked up again while NOT_FOUND,
+    // once per growth of the dictionary. Racing threads at worst repeat a lookup.
+    private volatile int categoryId = CategoryDictionary.NOT_FOUND;
+    private volatile int checkedSize = -1;
+
+    // Like ExpenseFilter.inCategory(): a category no expense has used yet matches
+    // nothing, and querying it doesn't add it to the dictionary
     public CategoryExpenseStrategy(String category) {
         this.category = category;
+        this.key = category != null ? category.toLowerCase(Locale.ROOT) : null;
     }
 
     @Override
-    public double calculate(List<MainActivity.Expense> expenses) {
-        double total = 0;
-        for (MainActivity.Expense expense : expenses) {
-            if (expense.getCategory().equalsIgnoreCase(category)) {
-                total += expense.getAmount();
+    public void accumulate(Expense expense, MoneyAccumulator total) {
+        if (expense.getCategoryId() == categoryId()) {
+            total.add(expense.getAmountCents());
+        }
+    }
+
+    private int categoryId() {
+        int id = categoryId;
+        if (id == CategoryDictionary.NOT_FOUND) {
+            CategoryDictionary dictionary = CategoryDictionary.getInstance();
+            // Read before find(), so an interning that races the lookup triggers another one
+            int size = dictionary.size();
+            if (size != checkedSize) {
+                id = dictionary.find(category);
+                categoryId = id;
+                checkedSize = size;
             }
         }
-        return total;
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CategoryExpenseStrategy && Objects.equals(((CategoryExpenseStrategy) o).key, key);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * CategoryExpenseStrategy.class.hashCode() + Objects.hashCode(key);
     }
 }
@@ -1,24 +1,37 @@
 package com.example.expensetracker.patterns.strategy;
 
-import com.example.expensetracker.MainActivity;
-
-import java.util.List;
+import com.example.expensetracker.data.EpochDays;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.MoneyAccumulator;
 
 public class DailyExpenseStrategy implements ExpenseCalculationStrategy {
-    private String date; // Format: YYYY-MM-DD
+    // Parsed once here; rows are matched by epoch day, so "MM/dd/yyyy" and
+    // "yyyy-MM-dd" dates for the same day both count
+    private final int epochDay;
 
     public DailyExpenseStrategy(String date) {
-        this.date = date;
+        this.epochDay = EpochDays.parse(date);
+    }
+
+    public DailyExpenseStrategy(int epochDay) {
+        this.epochDay = epochDay;
     }
 
     @Override
-    public double calculate(List<MainActivity.Expense> expenses) {
-        double total = 0;
-        for (MainActivity.Expense expense : expenses) {
-            if (expense.getDate().equals(date)) {
-                total += expense.getAmount();
-            }
+    public void accumulate(Expense expense, MoneyAccumulator total) {
+        // An unparseable date matches nothing, not every undated row
+        if (epochDay != EpochDays.UNKNOWN && expense.getEpochDay() == epochDay) {
+            total.add(expense.getAmountCents());
         }
-        return total;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DailyExpenseStrategy && ((DailyExpenseStrategy) o).epochDay == epochDay;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * DailyExpenseStrategy.class.hashCode() + epochDay;
     }
 }
@@ -1,10 +1,28 @@
 package com.example.expensetracker.patterns.strategy;
 
-import com.example.expensetracker.MainActivity;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.MoneyAccumulator;
+
 import java.util.List;
 
+/**
+ * A strategy is a per-expense step: accumulate() adds the expense's share of
+ * the figure, if any, to a running total. Because the figure is a sum of
+ * independent steps, ExpenseCalculatorContext can run several strategies in
+ * one pass and split large lists across threads. accumulate() may run
+ * concurrently, each thread with its own accumulator.
+ * Strategies that compute the same figure should be equal, so that
+ * ExpenseAnalysisFacade can serve one from the other's cached result.
+ */
 public interface ExpenseCalculationStrategy {
-    double calculate(List<MainActivity.Expense> expenses);
-}
-
+    void accumulate(Expense expense, MoneyAccumulator total);
 
+    // Exact total in cents (minor units of Money.DEFAULT_CURRENCY)
+    default long calculate(List<Expense> expenses) {
+        MoneyAccumulator total = new MoneyAccumulator();
+        for (Expense expense : expenses) {
+            accumulate(expense, total);
+        }
+        return total.getMinorUnits();
+    }
+}
@@ -1,16 +1,21 @@
 package com.example.expensetracker.patterns.strategy;
 
-import com.example.expensetracker.MainActivity;
-
-import java.util.List;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.model.MoneyAccumulator;
 
 public class TotalExpenseStrategy implements ExpenseCalculationStrategy {
     @Override
-    public double calculate(List<MainActivity.Expense> expenses) {
-        double total = 0;
-        for (MainActivity.Expense expense : expenses) {
-            total += expense.getAmount();
-        }
-        return total;
+    public void accumulate(Expense expense, MoneyAccumulator total) {
+        total.add(expense.getAmountCents());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TotalExpenseStrategy;
+    }
+
+    @Override
+    public int hashCode() {
+        return TotalExpenseStrategy.class.hashCode();
     }
 }
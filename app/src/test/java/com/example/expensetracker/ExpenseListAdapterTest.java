@@ -0,0 +1,29 @@
+package com.example.expensetracker;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.example.expensetracker.model.Expense;
+
+import org.junit.Test;
+
+public class ExpenseListAdapterTest {
+
+    private static MainActivity.ExpenseItem item(String id, String description, double amount) {
+        return new MainActivity.ExpenseItem(Expense.of(id, description, amount, "Food", "2025-08-03"));
+    }
+
+    // Test 1: rows are matched by expense ID, whatever their contents
+    @Test
+    public void testItemsMatchById() {
+        assertTrue(ExpenseListAdapter.DIFF_CALLBACK.areItemsTheSame(item("a", "Coffee", 3.50), item("a", "Tea", 2.00)));
+        assertFalse(ExpenseListAdapter.DIFF_CALLBACK.areItemsTheSame(item("a", "Coffee", 3.50), item("b", "Coffee", 3.50)));
+    }
+
+    // Test 2: a fresh item for an unchanged expense is not rebound; an edited one is
+    @Test
+    public void testContentsCompareExpenseValues() {
+        assertTrue(ExpenseListAdapter.DIFF_CALLBACK.areContentsTheSame(item("a", "Coffee", 3.50), item("a", "Coffee", 3.50)));
+        assertFalse(ExpenseListAdapter.DIFF_CALLBACK.areContentsTheSame(item("a", "Coffee", 3.50), item("a", "Coffee", 4.00)));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.expensetracker.analytics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import com.example.expensetracker.MainActivity;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.patterns.strategy.CategoryExpenseStrategy;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CategoryDictionaryTest {
+
+    // Test 1: spellings that differ only in case share an ID, name and color
+    @Test
+    public void testCaseInsensitiveInterning() {
+        CategoryDictionary dictionary = new CategoryDictionary();
+        int food = dictionary.intern("Food");
+
+        assertEquals(food, dictionary.intern("food"));
+        assertEquals(food, dictionary.find("FOOD"));
+        assertEquals("Food", dictionary.nameOf(food));
+        assertEquals(0xFF10B981, dictionary.colorOf(food));
+        assertNotEquals(food, dictionary.intern(" food"));
+        assertEquals(CategoryDictionary.NOT_FOUND, dictionary.find("Travel"));
+        assertEquals(0xFF6B7280, dictionary.colorFor("Travel"));
+        assertEquals(CategoryDictionary.UNCATEGORIZED, dictionary.intern(null));
+    }
+
+    // Test 2: posting lists give the rows of a category without a scan
+    @Test
+    public void testPostingLists() {
+        ExpenseColumns columns = new ExpenseColumns();
+        columns.add(550, "Food", 0);
+        columns.add(225, "Transport", 0);
+        columns.add(1200, "FOOD", 1);
+        columns.add(900, "Bills", 2);
+        columns.add(300, "food", 2);
+
+        assertArrayEquals(new int[] {0, 2, 4}, columns.rowsInCategory("Food"));
+        assertArrayEquals(new int[] {1}, columns.rowsInCategory("transport"));
+        assertArrayEquals(new int[0], columns.rowsInCategory("Never Used Category"));
+
+        columns.add(100, "Transport", 3);
+        assertArrayEquals(new int[] {1, 5}, columns.rowsInCategory("Transport"));
+    }
+
+    // Test 3: strategy and aggregates agree on mixed-case categories
+    @Test
+    public void testStrategyMatchesAggregates() {
+        List<Expense> expenses = new ArrayList<>();
+        expenses.add(Expense.of("coffee", "Coffee", 5.50, "Food", "08/03/2025"));
+        expenses.add(Expense.of("lunch", "Lunch", 12.00, "fOOd", "08/03/2025"));
+        expenses.add(Expense.of("bus", "Bus", 2.25, "Transport", "08/04/2025"));
+
+        long strategyTotal = new CategoryExpenseStrategy("FOOD").calculate(expenses);
+        long aggregateTotal = ExpenseAggregator.aggregate(ExpenseColumns.of(expenses)).getCategoryTotalCents("food");
+
+        assertEquals(1750, strategyTotal);
+        assertEquals(strategyTotal, aggregateTotal);
+        assertEquals(MainActivity.getCategoryColor("food"), MainActivity.getCategoryColor("FoOd"));
+    }
+
+    // Test 4: querying a category nobody has used matches nothing and leaves the dictionary alone
+    @Test
+    public void testQueryDoesNotInternCategory() {
+        List<Expense> expenses = new ArrayList<>();
+        expenses.add(Expense.of("coffee", "Coffee", 5.50, "Food", "08/03/2025"));
+
+        assertEquals(0, new CategoryExpenseStrategy("Fodo (typo)").calculate(expenses));
+        assertEquals(CategoryDictionary.NOT_FOUND, CategoryDictionary.getInstance().find("Fodo (typo)"));
+    }
+
+    // Test 5: a strategy built before its category is first used picks it up afterwards
+    @Test
+    public void testStrategyResolvesLateCategory() {
+        CategoryExpenseStrategy strategy = new CategoryExpenseStrategy("Late Category");
+        assertEquals(0, strategy.calculate(new ArrayList<>()));
+
+        List<Expense> expenses = new ArrayList<>();
+        expenses.add(Expense.of("ticket", "Ticket", 7.25, "late category", "08/03/2025"));
+
+        assertEquals(725, strategy.calculate(expenses));
+        assertEquals(new CategoryExpenseStrategy("LATE CATEGORY"), strategy);
+        assertNotEquals(new CategoryExpenseStrategy("Another Unused Category"), new CategoryExpenseStrategy("Third Unused Category"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.expensetracker.analytics;
+
+import static org.junit.Assert.assertEquals;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.data.EpochDays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ExpenseAggregatorTest {
+
+    private List<Expense> expenses;
+
+    @Before
+    public void setUp() {
+        expenses = new ArrayList<>();
+        expenses.add(Expense.of("coffee", "Coffee", 5.50, "Food", "08/03/2025"));
+        expenses.add(Expense.of("lunch", "Lunch", 12.00, "food", "2025-08-03"));
+        expenses.add(Expense.of("bus", "Bus", 2.25, "Transport", "08/04/2025"));
+        expenses.add(Expense.of("rent", "Rent", 900.00, "Bills", "09/01/2025"));
+        expenses.add(Expense.of("gift", "Gift", 30.00, "Shopping", "not a date"));
+    }
+
+    // Test 1: headline figures
+    @Test
+    public void testTotalsCountMinMax() {
+        ExpenseAggregates aggregates = ExpenseAggregator.aggregate(ExpenseColumns.of(expenses));
+
+        assertEquals(5, aggregates.getCount());
+        assertEquals(94975, aggregates.getTotalCents());
+        assertEquals(225, aggregates.getMinCents());
+        assertEquals(90000, aggregates.getMaxCents());
+    }
+
+    // Test 2: categories match case-insensitively, like CategoryExpenseStrategy
+    @Test
+    public void testCategoryTotals() {
+        ExpenseAggregates aggregates = ExpenseAggregator.aggregate(ExpenseColumns.of(expenses));
+
+        assertEquals(1750, aggregates.getCategoryTotalCents("Food"));
+        assertEquals(2, aggregates.getCategoryCount("FOOD"));
+        assertEquals(0, aggregates.getCategoryTotalCents("Education"));
+    }
+
+    // Test 3: both stored date formats land in the same day and month buckets
+    @Test
+    public void testDayAndMonthBuckets() {
+        ExpenseAggregates aggregates = ExpenseAggregator.aggregate(ExpenseColumns.of(expenses));
+        int august3 = EpochDays.of(2025, 8, 3);
+
+        assertEquals(1750, aggregates.getDayTotalCents(august3));
+        assertEquals(2, aggregates.getDayCount(august3));
+        assertEquals(1975, aggregates.getMonthTotalCents(2025, 8));
+        assertEquals(90000, aggregates.getMonthTotalCents(2025, 9));
+        assertEquals(0, aggregates.getMonthTotalCents(2024, 8));
+    }
+
+    // Test 4: empty input
+    @Test
+    public void testEmpty() {
+        ExpenseAggregates aggregates = ExpenseAggregator.aggregate(ExpenseColumns.of(new ArrayList<>()));
+
+        assertEquals(0, aggregates.getCount());
+        assertEquals(0, aggregates.getTotalCents());
+        assertEquals(0, aggregates.getMinCents());
+        assertEquals(0, aggregates.getMonthTotalCents(2025, 8));
+    }
+
+    // Test 5: epoch-day arithmetic agrees with java.time across leap years
+    @Test
+    public void testEpochDaysMatchJavaTime() {
+        for (LocalDate date = LocalDate.of(1999, 12, 25); date.getYear() < 2030; date = date.plusDays(17)) {
+            int epochDay = EpochDays.of(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+            assertEquals(date.toEpochDay(), epochDay);
+            assertEquals(date.getYear() * 12 + date.getMonthValue() - 1, EpochDays.monthIndex(epochDay));
+            assertEquals(date.toString(), EpochDays.format(epochDay));
+        }
+        assertEquals(EpochDays.UNKNOWN, EpochDays.parse("02/30/2025"));
+        assertEquals(EpochDays.UNKNOWN, EpochDays.parse("2025/08/03"));
+    }
+}
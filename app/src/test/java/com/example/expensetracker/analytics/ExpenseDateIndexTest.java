@@ -0,0 +1,115 @@
+package com.example.expensetracker.analytics;
+
+import static org.junit.Assert.assertEquals;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.data.EpochDays;
+import com.example.expensetracker.patterns.strategy.DailyExpenseStrategy;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ExpenseDateIndexTest {
+
+    private List<Expense> expenses;
+
+    @Before
+    public void setUp() {
+        expenses = new ArrayList<>();
+        expenses.add(Expense.of("coffee", "Coffee", 5.50, "Food", "08/03/2025"));  // Sunday
+        expenses.add(Expense.of("lunch", "Lunch", 12.00, "Food", "2025-08-03"));
+        expenses.add(Expense.of("bus", "Bus", 2.25, "Transport", "08/04/2025")); // Monday
+        expenses.add(Expense.of("taxi", "Taxi", 20.00, "Transport", "08/10/2025")); // Sunday
+        expenses.add(Expense.of("rent", "Rent", 900.00, "Bills", "09/01/2025"));
+        expenses.add(Expense.of("gift", "Gift", 30.00, "Shopping", "not a date"));
+    }
+
+    // Test 1: day, week, month and range totals from the index
+    @Test
+    public void testRangeQueries() {
+        ExpenseDateIndex index = ExpenseDateIndex.of(expenses);
+
+        assertEquals(4, index.size());
+        assertEquals(1750, index.sumCentsForDay(EpochDays.of(2025, 8, 3)));
+        assertEquals(2225, index.sumCentsForWeek(EpochDays.of(2025, 8, 6)));
+        assertEquals(1750, index.sumCentsForWeek(EpochDays.of(2025, 8, 2)));
+        assertEquals(3975, index.sumCentsForMonth(2025, 8));
+        assertEquals(92225, index.sumCentsBetween(EpochDays.of(2025, 8, 4), EpochDays.of(2025, 9, 30)));
+        assertEquals(3, index.countBetween(EpochDays.of(2025, 8, 1), EpochDays.of(2025, 8, 4)));
+        assertEquals(0, index.sumCentsBetween(EpochDays.of(2025, 8, 11), EpochDays.of(2025, 8, 31)));
+        assertEquals(0, index.sumCentsBetween(EpochDays.of(2025, 9, 1), EpochDays.of(2025, 8, 1)));
+    }
+
+    // Test 2: both stored date formats count for the same day
+    @Test
+    public void testDailyStrategyMatchesBothFormats() {
+        assertEquals(1750, new DailyExpenseStrategy("2025-08-03").calculate(expenses));
+        assertEquals(1750, new DailyExpenseStrategy("08/03/2025").calculate(expenses));
+        assertEquals(0, new DailyExpenseStrategy("garbage").calculate(expenses));
+    }
+
+    // Test 3: running totals keep their day index current across edits
+    @Test
+    public void testRunningTotalsIndexFollowsMutations() {
+        RunningTotals totals = new RunningTotals();
+        for (Expense expense : expenses) {
+            totals.add(expense);
+        }
+        int aug3 = EpochDays.of(2025, 8, 3);
+        assertEquals(3975, totals.getRangeTotalCents(aug3, EpochDays.of(2025, 8, 31)));
+
+        Expense moved = Expense.of("taxi", "Taxi", 25.00, "Transport", "2025-09-02");
+        totals.replace(expenses.get(3), moved);
+        assertEquals(1975, totals.getRangeTotalCents(aug3, EpochDays.of(2025, 8, 31)));
+        assertEquals(92500, totals.getWeekTotalCents(EpochDays.of(2025, 9, 1)));
+        assertEquals(1, EpochDays.dayOfWeek(EpochDays.of(2025, 9, 1)));
+    }
+
+    // Test 4: many small amounts add up exactly, and removing them all leaves exactly zero
+    @Test
+    public void testRunningTotalsAreExact() {
+        RunningTotals totals = new RunningTotals();
+        List<Expense> dimes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            dimes.add(Expense.of("dime" + i, "Dime", 0.10, "Food", "2025-08-03"));
+        }
+        for (Expense dime : dimes) totals.add(dime);
+
+        assertEquals(10000, totals.getTotalCents());
+        assertEquals(10000, totals.getCategoryTotalCents("food"));
+        assertEquals(10000, totals.getDayTotalCents(EpochDays.of(2025, 8, 3)));
+
+        for (Expense dime : dimes.subList(1, 1000)) totals.remove(dime);
+        assertEquals(10, totals.getTotalCents());
+        assertEquals(10, totals.getRangeTotalCents(EpochDays.of(2025, 8, 1), EpochDays.of(2025, 8, 31)));
+    }
+
+    // Test 5: range totals agree with a freshly built index after every mutation, across the whole date domain
+    @Test
+    public void testRunningRangeTotalsMatchIndex() {
+        List<Expense> live = new ArrayList<>(expenses);
+        live.add(Expense.of("old", "Old", 1.00, "Other", "0001-01-01"));
+        live.add(Expense.of("far", "Far", 2.00, "Other", "9999-12-31"));
+        RunningTotals totals = new RunningTotals();
+        for (Expense expense : live) totals.add(expense);
+
+        int[][] ranges = {
+                {EpochDays.of(2025, 8, 3), EpochDays.of(2025, 8, 31)},
+                {EpochDays.of(2025, 8, 4), EpochDays.of(2025, 8, 4)},
+                {Integer.MIN_VALUE + 1, Integer.MAX_VALUE},
+                {EpochDays.of(1, 1, 1), EpochDays.of(1, 1, 1)},
+        };
+        while (!live.isEmpty()) {
+            ExpenseDateIndex index = ExpenseDateIndex.of(live);
+            for (int[] range : ranges) {
+                assertEquals(index.sumCentsBetween(range[0], range[1]), totals.getRangeTotalCents(range[0], range[1]));
+            }
+            assertEquals(index.sumCentsForWeek(EpochDays.of(2025, 8, 6)), totals.getWeekTotalCents(EpochDays.of(2025, 8, 6)));
+            totals.remove(live.remove(live.size() / 2));
+        }
+        assertEquals(0, totals.getRangeTotalCents(Integer.MIN_VALUE + 1, Integer.MAX_VALUE));
+    }
+}
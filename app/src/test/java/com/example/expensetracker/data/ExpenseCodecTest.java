@@ -0,0 +1,177 @@
+package com.example.expensetracker.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import com.example.expensetracker.model.Expense;
+
+import org.junit.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class ExpenseCodecTest {
+
+    // Test 1: encode/decode round-trips every persisted field and stamps the schema version
+    @Test
+    public void testRoundTrip() {
+        Expense expense = Expense.of("a", "Coffee", 3.5, "Food", "08/03/2025");
+
+        Map<String, Object> raw = ExpenseCodec.encode(expense);
+
+        assertEquals((long) ExpenseCodec.SCHEMA_VERSION, raw.get("schemaVersion"));
+        assertEquals(3.5, raw.get("amount"));
+        assertEquals(expense, ExpenseCodec.decode("a", raw));
+    }
+
+    // Test 2: rows from before the codec (no version, Long amounts) and odd values still decode
+    @Test
+    public void testLegacyAndLenientRows() {
+        Map<String, Object> legacy = new HashMap<>();
+        legacy.put("description", "Rent");
+        legacy.put("amount", 900L);
+        legacy.put("category", "Bills");
+        legacy.put("date", "2025-09-01");
+        legacy.put("someFutureField", true);
+
+        Expense decoded = ExpenseCodec.decode("rent", legacy);
+
+        assertEquals(1, ExpenseCodec.schemaVersion(legacy));
+        assertEquals(900.0, decoded.getAmount(), 0.0);
+        assertEquals("Bills", decoded.getCategory());
+        assertEquals("2025-09-01", decoded.getDate());
+        assertEquals(EpochDays.of(2025, 9, 1), decoded.getEpochDay());
+        assertNull(ExpenseCodec.decode("x", "not an object"));
+        assertNull(ExpenseCodec.decode("x", null));
+        legacy.put("amount", "12.5");
+        assertEquals(1250, ExpenseCodec.decode("rent", legacy).getAmountCents());
+    }
+
+    // Test 3: the codec decodes exactly what reflective bean mapping would, Long amounts included
+    @Test
+    public void testCodecMatchesReflectiveMapping() throws Exception {
+        ReflectiveMapper reflective = new ReflectiveMapper(ExpenseBean.class);
+        for (int i = 0; i < 500; i++) {
+            Map<String, Object> raw = ExpenseCodec.encode(Expense.of("k" + i,
+                    "Item " + i, i % 2 == 0 ? (double) i : i + 0.25, i % 3 == 0 ? "Food" : "Transport", "2025-08-03"));
+            // The database hands whole numbers back as Long
+            if (i % 2 == 0) raw.put("amount", (long) i);
+
+            assertEquals(reflective.decode(raw).toExpense("k" + i), ExpenseCodec.decode("k" + i, raw));
+        }
+    }
+
+    // Test 4: amounts that aren't finite or don't fit in cents decode as 0, like unparseable text
+    @Test
+    public void testOutOfRangeAmountsDecodeAsZero() {
+        Map<String, Object> raw = ExpenseCodec.encode(Expense.of("a", "Coffee", 3.5, "Food", "08/03/2025"));
+        for (Object amount : new Object[] {"NaN", "Infinity", Double.NEGATIVE_INFINITY, 1e300, "abc"}) {
+            raw.put("amount", amount);
+            assertEquals(String.valueOf(amount), 0, ExpenseCodec.decode("a", raw).getAmountCents());
+        }
+    }
+
+    // Test 5: benchmark, per-row decode time of the codec vs. reflective bean mapping of the
+    // same rows. Reported, not asserted: wall-clock figures vary too much between machines.
+    @Test
+    public void benchmarkCodecAgainstReflectiveMapping() throws Exception {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Map<String, Object> raw = ExpenseCodec.encode(Expense.of("k" + i,
+                    "Item " + i, i % 2 == 0 ? (double) i : i + 0.25, i % 3 == 0 ? "Food" : "Transport", "2025-08-03"));
+            if (i % 2 == 0) raw.put("amount", (long) i);
+            rows.add(raw);
+        }
+        ReflectiveMapper reflective = new ReflectiveMapper(ExpenseBean.class);
+
+        long codecBest = Long.MAX_VALUE;
+        long reflectiveBest = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int round = 0; round < 15; round++) {
+            long start = System.nanoTime();
+            for (Map<String, Object> raw : rows) checksum += ExpenseCodec.decode("k", raw).getAmountCents();
+            codecBest = Math.min(codecBest, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            // Bean mapping only fills the bean; it still has to become an immutable Expense
+            for (Map<String, Object> raw : rows) checksum -= reflective.decode(raw).toExpense("k").getAmountCents();
+            reflectiveBest = Math.min(reflectiveBest, System.nanoTime() - start);
+        }
+
+        System.out.printf(Locale.ROOT, "decode ns/row: codec %.1f, reflective %.1f%n",
+                (double) codecBest / rows.size(), (double) reflectiveBest / rows.size());
+        assertEquals("Both paths must decode the same values", 0, checksum);
+    }
+
+    // Test 6: the category and date are written back as they were entered, so a
+    // case-only edit is a change and "yyyy-MM-dd" rows are not rewritten
+    @Test
+    public void testCategoryAndDateTextAreKept() {
+        Expense before = Expense.of("a", "Lunch", 12.00, "food", "2025-09-01");
+        Expense edited = Expense.of("a", "Lunch", 12.00, "Food", "2025-09-01");
+
+        assertNotEquals(before, edited);
+        assertEquals(before.getCategoryId(), edited.getCategoryId());
+        assertEquals("Food", ExpenseCodec.encode(edited).get("category"));
+        assertEquals("2025-09-01", ExpenseCodec.encode(before).get("date"));
+        assertEquals("09/01/2025", new Expense("b", null, 100, null, EpochDays.of(2025, 9, 1)).getDate());
+    }
+
+    // The mutable bean shape that bean mapping needs: no-arg constructor, settable fields
+    private static final class ExpenseBean {
+        String description;
+        double amount;
+        String category;
+        String date;
+
+        Expense toExpense(String id) {
+            return Expense.of(id, description, amount, category, date);
+        }
+    }
+
+    /**
+     * Minimal stand-in for Firebase's CustomClassMapper, which is what
+     * DataSnapshot.getValue(Class) runs on the snapshot's raw value (a DataSnapshot
+     * can't be built in a JVM test): a cached, case-insensitive property table per
+     * class, reflective instantiation, and per-value type conversion, which is the
+     * per-row work the codec removes.
+     */
+    private static final class ReflectiveMapper {
+        private final Constructor<ExpenseBean> constructor;
+        private final Map<String, Field> properties = new HashMap<>();
+
+        ReflectiveMapper(Class<ExpenseBean> type) throws NoSuchMethodException {
+            constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) continue;
+                field.setAccessible(true);
+                properties.put(field.getName().toLowerCase(Locale.US), field);
+            }
+        }
+
+        ExpenseBean decode(Map<String, Object> raw) throws ReflectiveOperationException {
+            ExpenseBean expense = constructor.newInstance();
+            for (Map.Entry<String, Object> entry : raw.entrySet()) {
+                Field field = properties.get(entry.getKey().toLowerCase(Locale.US));
+                if (field == null) continue; // Unknown property, e.g. schemaVersion
+                Object value = entry.getValue();
+                if (field.getType() == double.class) {
+                    field.setDouble(expense, ((Number) value).doubleValue());
+                } else if (field.getType() == long.class) {
+                    field.setLong(expense, ((Number) value).longValue());
+                } else {
+                    field.set(expense, field.getType().cast(value));
+                }
+            }
+            return expense;
+        }
+    }
+}
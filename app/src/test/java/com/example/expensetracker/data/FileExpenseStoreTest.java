@@ -0,0 +1,152 @@
+package com.example.expensetracker.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.example.expensetracker.model.Expense;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+public class FileExpenseStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static Expense expense(String id, String description, double amount) {
+        return Expense.of(id, description, amount, "Food", "08/03/2025");
+    }
+
+    // Test 1: puts and removes survive a reopen
+    @Test
+    public void testReplaysLogAfterReopen() throws IOException {
+        File file = new File(folder.getRoot(), "expenses.log");
+        FileExpenseStore store = new FileExpenseStore(file);
+        store.loadAll();
+        store.put(expense("a", "Coffee", 3.50));
+        store.put(expense("b", "Lunch", 12.00));
+        store.put(expense("a", "Coffee", 4.00));
+        store.remove("b");
+        store.close();
+
+        Map<String, Expense> reloaded = new FileExpenseStore(file).loadAll();
+
+        assertEquals(1, reloaded.size());
+        assertEquals(expense("a", "Coffee", 4.00), reloaded.get("a"));
+        assertNull(reloaded.get("b"));
+    }
+
+    // Test 2: null fields round-trip
+    @Test
+    public void testNullFieldsRoundTrip() throws IOException {
+        File file = new File(folder.getRoot(), "expenses.log");
+        FileExpenseStore store = new FileExpenseStore(file);
+        store.loadAll();
+        store.put(Expense.of("a", null, 1.0, null, null));
+        store.close();
+
+        Expense reloaded = new FileExpenseStore(file).loadAll().get("a");
+
+        assertNull(reloaded.getDescription());
+        assertNull(reloaded.getCategory());
+        assertNull(reloaded.getDate());
+    }
+
+    // Test 3: a torn record at the tail is dropped, earlier records are kept
+    @Test
+    public void testTornTailIsIgnored() throws IOException {
+        File file = new File(folder.getRoot(), "expenses.log");
+        FileExpenseStore store = new FileExpenseStore(file);
+        store.loadAll();
+        store.put(expense("a", "Coffee", 3.50));
+        store.close();
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(new byte[]{1, 0, 5, 'b'}); // PUT with a truncated ID
+        }
+
+        FileExpenseStore reopened = new FileExpenseStore(file);
+        Map<String, Expense> reloaded = reopened.loadAll();
+        reopened.put(expense("c", "Tea", 2.00));
+        reopened.close();
+
+        assertEquals(1, reloaded.size());
+        assertEquals(2, new FileExpenseStore(file).loadAll().size());
+    }
+
+    // Test 4: dead records are compacted away on load
+    @Test
+    public void testLogIsCompactedWhenMostlyDead() throws IOException {
+        File file = new File(folder.getRoot(), "expenses.log");
+        FileExpenseStore store = new FileExpenseStore(file);
+        store.loadAll();
+        for (int i = 0; i < 200; i++) {
+            store.put(expense("a", "Coffee", i));
+        }
+        store.close();
+        long before = file.length();
+
+        Map<String, Expense> reloaded = new FileExpenseStore(file).loadAll();
+
+        assertEquals(199.0, reloaded.get("a").getAmount(), 0.001);
+        assertTrue(file.length() < before);
+    }
+
+    // Test 5: clear empties the store
+    @Test
+    public void testClear() throws IOException {
+        File file = new File(folder.getRoot(), "expenses.log");
+        FileExpenseStore store = new FileExpenseStore(file);
+        store.loadAll();
+        store.put(expense("a", "Coffee", 3.50));
+        store.clear();
+        store.close();
+
+        assertFalse(new FileExpenseStore(file).loadAll().containsKey("a"));
+    }
+
+    // Test 6: a log in another format is discarded and replaced by a fresh one
+    @Test
+    public void testUnknownFormatIsDiscarded() throws IOException {
+        File file = new File(folder.getRoot(), "expenses.log");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.writeInt(0x45585031);
+            out.writeInt(99);
+            out.writeByte(1); // PUT
+            out.writeUTF("a");
+        }
+
+        FileExpenseStore store = new FileExpenseStore(file);
+        assertTrue(store.loadAll().isEmpty());
+        store.put(expense("b", "Lunch", 12.00));
+        store.close();
+
+        Map<String, Expense> reloaded = new FileExpenseStore(file).loadAll();
+        assertEquals(1, reloaded.size());
+        assertEquals(expense("b", "Lunch", 12.00), reloaded.get("b"));
+    }
+
+    // Test 7: category spelling and date text survive a reopen unchanged
+    @Test
+    public void testCategoryAndDateTextRoundTrip() throws IOException {
+        File file = new File(folder.getRoot(), "expenses.log");
+        FileExpenseStore store = new FileExpenseStore(file);
+        store.loadAll();
+        store.put(Expense.of("a", "Rent", 900.00, "BILLS", "2025-09-01"));
+        store.close();
+
+        Expense reloaded = new FileExpenseStore(file).loadAll().get("a");
+
+        assertEquals("BILLS", reloaded.getCategory());
+        assertEquals("2025-09-01", reloaded.getDate());
+        assertEquals(Expense.of("a", "Rent", 900.00, "BILLS", "2025-09-01"), reloaded);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.expensetracker.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.example.expensetracker.model.Expense;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class ParallelExpenseDecoderTest {
+
+    // Stands in for the main thread's message queue
+    private final LinkedBlockingQueue<Runnable> mainQueue = new LinkedBlockingQueue<>();
+    private final List<String> mainThreadLog = new ArrayList<>();
+    private ForkJoinPool pool;
+    private ParallelExpenseDecoder<String> decoder;
+
+    @Before
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+        // Rows look like "key:amount"; "bad" rows throw, like a malformed snapshot
+        decoder = new ParallelExpenseDecoder<>(new ParallelExpenseDecoder.RowMapper<String>() {
+            @Override
+            public String keyOf(String row) {
+                return row.substring(0, row.indexOf(':'));
+            }
+
+            @Override
+            public Expense decode(String key, String row) {
+                String amount = row.substring(row.indexOf(':') + 1);
+                return Expense.of(key, row, Double.parseDouble(amount), "Food", "2025-08-03");
+            }
+        }, pool, mainQueue::add);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private void runMainTask() throws InterruptedException {
+        Runnable task = mainQueue.poll(5, TimeUnit.SECONDS);
+        assertNotNull("Timed out waiting for a delivery", task);
+        task.run();
+    }
+
+    private static List<String> rows(String prefix, int count) {
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(String.format("%s%05d:%d", prefix, i, i));
+        }
+        return rows;
+    }
+
+    // Test 1: a large batch decodes in chunks and arrives as one ordered, unmodifiable map
+    @Test
+    public void testLargeBatchArrivesAsOneSnapshot() throws InterruptedException {
+        List<Map<String, Expense>> delivered = new ArrayList<>();
+        List<String> rows = rows("k", 10 * ParallelExpenseDecoder.CHUNK_SIZE + 7);
+        rows.add(500, "bad:not-a-number");
+
+        decoder.decode(rows, delivered::add);
+        runMainTask();
+
+        assertEquals(1, delivered.size());
+        Map<String, Expense> snapshot = delivered.get(0);
+        assertEquals(rows.size() - 1, snapshot.size());
+        assertNull(snapshot.get("bad"));
+        Iterator<String> keys = snapshot.keySet().iterator();
+        assertEquals("k00000", keys.next());
+        assertEquals("k00001", keys.next());
+        assertEquals(42.0, snapshot.get("k00042").getAmount(), 0.0);
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.remove("k00000"));
+    }
+
+    // Test 2: deliveries and queued actions run in submission order, whichever batch finishes first
+    @Test
+    public void testDeliveriesKeepSubmissionOrder() throws InterruptedException {
+        decoder.decode(rows("big", 20 * ParallelExpenseDecoder.CHUNK_SIZE),
+                snapshot -> mainThreadLog.add("big:" + snapshot.size()));
+        decoder.runInOrder(() -> mainThreadLog.add("live change"));
+        decoder.decode(rows("small", 3), snapshot -> mainThreadLog.add("small:" + snapshot.size()));
+
+        assertTrue("Nothing runs before the first batch is decoded", mainThreadLog.isEmpty());
+        runMainTask();
+        runMainTask();
+
+        assertEquals(3, mainThreadLog.size());
+        assertEquals("big:" + 20 * ParallelExpenseDecoder.CHUNK_SIZE, mainThreadLog.get(0));
+        assertEquals("live change", mainThreadLog.get(1));
+        assertEquals("small:3", mainThreadLog.get(2));
+
+        // With nothing in flight, an action runs straight away
+        decoder.runInOrder(() -> mainThreadLog.add("now"));
+        assertEquals("now", mainThreadLog.get(3));
+    }
+}
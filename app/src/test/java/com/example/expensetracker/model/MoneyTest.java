@@ -0,0 +1,86 @@
+package com.example.expensetracker.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import com.example.expensetracker.patterns.strategy.TotalExpenseStrategy;
+
+import org.junit.Test;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+
+public class MoneyTest {
+
+    private static final Currency USD = Money.DEFAULT_CURRENCY;
+
+    // Test 1: text and doubles convert to the cents a person would write
+    @Test
+    public void testConversions() {
+        assertEquals(10, Money.toMinorUnits(0.1, USD, RoundingMode.HALF_EVEN));
+        assertEquals(101, Money.toMinorUnits(1.005, USD, RoundingMode.HALF_UP));
+        assertEquals(12, Money.toMinorUnits(0.125, USD, RoundingMode.HALF_EVEN));
+        assertEquals(-1999, Money.toMinorUnits(-19.99, USD, RoundingMode.HALF_EVEN));
+        assertEquals(2550, Money.parse("$25.50", USD, RoundingMode.HALF_EVEN));
+        assertEquals(120000, Money.parse("1,200", USD, RoundingMode.HALF_EVEN));
+        assertEquals(2, Money.parse("0.025", USD, RoundingMode.HALF_EVEN));
+        assertEquals(3, Money.parse("0.025", USD, RoundingMode.HALF_UP));
+        assertEquals(1500, Money.parse("1500", Currency.getInstance("JPY"), RoundingMode.HALF_EVEN));
+        assertEquals("$1234.50", Money.format(123450, USD));
+        assertEquals("-$3.00", Money.format(-300, USD));
+        assertEquals("0.05", Money.toPlainString(5, USD));
+        try {
+            Money.parse("ten", USD, RoundingMode.HALF_EVEN);
+            fail("Expected NumberFormatException");
+        } catch (NumberFormatException expected) {
+        }
+    }
+
+    // Test 2: totals are exact and the same in any order
+    @Test
+    public void testTotalIsExactAndOrderIndependent() {
+        List<Expense> expenses = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            expenses.add(Expense.of("e" + i, "Coffee", 0.10, "Food", "08/03/2025"));
+        }
+        expenses.add(Expense.of("big", "Rent", 1e9, "Housing", "08/01/2025"));
+        expenses.add(Expense.of("refund", "Refund", -1e9, "Housing", "08/02/2025"));
+
+        long forward = new TotalExpenseStrategy().calculate(expenses);
+        Collections.reverse(expenses);
+        long backward = new TotalExpenseStrategy().calculate(expenses);
+
+        assertEquals(10000, forward);
+        assertEquals(forward, backward);
+    }
+
+    // Test 3: accumulators combine, but only within one currency
+    @Test
+    public void testAccumulatorCombines() {
+        MoneyAccumulator left = new MoneyAccumulator();
+        left.add(150);
+        MoneyAccumulator right = new MoneyAccumulator();
+        right.add(250);
+        right.add(-100);
+        left.addAll(right);
+
+        assertEquals(300, left.getMinorUnits());
+        assertEquals(3, left.getCount());
+        assertEquals(3.00, left.toMajorUnits(), 0.0);
+        try {
+            left.addAll(new MoneyAccumulator(Currency.getInstance("EUR")));
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+        MoneyAccumulator full = new MoneyAccumulator();
+        full.add(Long.MAX_VALUE);
+        try {
+            full.add(1);
+            fail("Expected ArithmeticException");
+        } catch (ArithmeticException expected) {
+        }
+    }
+}
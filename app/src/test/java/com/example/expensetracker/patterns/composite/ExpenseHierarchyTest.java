@@ -0,0 +1,83 @@
+package com.example.expensetracker.patterns.composite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.patterns.observer.ExpenseChangeSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExpenseHierarchyTest {
+
+    private ExpenseHierarchy hierarchy;
+
+    @Before
+    public void setUp() {
+        hierarchy = new ExpenseHierarchy();
+        hierarchy.onExpensesChanged(new ExpenseChangeSet.Builder()
+                .insert(Expense.of("coffee", "Coffee", 5.50, "Food", "08/03/2025"))
+                .insert(Expense.of("lunch", "Lunch", 12.00, "Food", "09/01/2025"))
+                .insert(Expense.of("bus", "Bus", 2.25, "Transport", "08/04/2025"))
+                .build(1));
+    }
+
+    // Test 1: subtotals and counts are kept at every level
+    @Test
+    public void testSubtotalsAtEveryLevel() {
+        ExpenseGroup root = hierarchy.getRoot();
+        assertEquals(1975, root.getAmountCents());
+        assertEquals(3, root.getCount());
+
+        ExpenseGroup food = hierarchy.getCategoryGroup("food");
+        assertEquals(1750, food.getAmountCents());
+        assertEquals(2, food.getChildren().size());
+        assertEquals("2025-08", food.getChildren().get(0).getTitle());
+        assertEquals(550, food.getChildren().get(0).getAmountCents());
+    }
+
+    // Test 2: updates and removals move deltas up and drop emptied groups
+    @Test
+    public void testChangesPropagateUp() {
+        hierarchy.onExpensesChanged(new ExpenseChangeSet.Builder()
+                .update(Expense.of("bus", "Taxi", 30.00, "Food", "08/04/2025"))
+                .remove("lunch")
+                .build(2));
+
+        assertEquals(3550, hierarchy.getRoot().getAmountCents());
+        assertEquals(2, hierarchy.getRoot().getCount());
+        assertNull("Transport lost its only expense", hierarchy.getCategoryGroup("Transport"));
+        ExpenseGroup food = hierarchy.getCategoryGroup("Food");
+        assertEquals(1, food.getChildren().size());
+        assertEquals(2, food.getChildren().get(0).getCount());
+
+        // An already applied version (e.g. a replay) changes nothing
+        hierarchy.onExpensesChanged(new ExpenseChangeSet.Builder().remove("coffee").build(2));
+        assertEquals(3550, hierarchy.getRoot().getAmountCents());
+    }
+
+    // Test 3: a group has one parent, and hand-built trees keep their sums too
+    @Test
+    public void testGroupsKeepOneParent() {
+        ExpenseGroup outer = new ExpenseGroup("Outer");
+        ExpenseGroup inner = new ExpenseGroup("Inner");
+        outer.add(inner);
+        inner.add(new SingleExpense(Expense.of("a", "A", 1.00, "Food", "08/03/2025")));
+        assertEquals(100, outer.getAmountCents());
+        try {
+            new ExpenseGroup("Other").add(inner);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            inner.add(outer);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+        outer.remove(inner);
+        assertEquals(0, outer.getAmountCents());
+        assertEquals(0, outer.getCount());
+    }
+}
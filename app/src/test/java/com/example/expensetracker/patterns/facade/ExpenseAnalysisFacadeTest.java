@@ -0,0 +1,78 @@
+package com.example.expensetracker.patterns.facade;
+
+import static org.junit.Assert.assertEquals;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.patterns.observer.ExpenseChangeSet;
+import com.example.expensetracker.patterns.strategy.CategoryExpenseStrategy;
+import com.example.expensetracker.patterns.strategy.DailyExpenseStrategy;
+import com.example.expensetracker.patterns.strategy.ExpenseCalculationStrategy;
+import com.example.expensetracker.patterns.strategy.TotalExpenseStrategy;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class ExpenseAnalysisFacadeTest {
+
+    private ExpenseAnalysisFacade facade;
+    private List<Expense> expenses;
+
+    @Before
+    public void setUp() {
+        facade = new ExpenseAnalysisFacade(2);
+        expenses = new ArrayList<>();
+        expenses.add(Expense.of("coffee", "Coffee", 5.50, "Food", "08/03/2025"));
+        expenses.add(Expense.of("lunch", "Lunch", 12.00, "Food", "08/03/2025"));
+        expenses.add(Expense.of("bus", "Bus", 2.25, "Transport", "08/04/2025"));
+    }
+
+    // Test 1: equal strategies at the same version hit; a new version misses
+    @Test
+    public void testCacheKeyedByStrategyAndVersion() {
+        assertEquals(1750, facade.calculate(new CategoryExpenseStrategy("Food"), expenses, 1));
+        assertEquals(1750, facade.calculate(new CategoryExpenseStrategy("food"), expenses, 1));
+        assertEquals(1, facade.getCacheHits());
+        assertEquals(1, facade.getCacheMisses());
+
+        expenses.add(Expense.of("dinner", "Dinner", 20.00, "Food", "08/04/2025"));
+        assertEquals(3750, facade.calculate(new CategoryExpenseStrategy("Food"), expenses, 2));
+        assertEquals(2, facade.getCacheMisses());
+    }
+
+    // Test 2: a change set drops everything, and the cache stays within its bound
+    @Test
+    public void testInvalidationAndEviction() {
+        facade.calculate(new TotalExpenseStrategy(), expenses, 1);
+        facade.onExpensesChanged(new ExpenseChangeSet.Builder().remove("bus").build(2));
+        assertEquals(1975, facade.calculate(new TotalExpenseStrategy(), expenses, 1));
+        assertEquals(2, facade.getCacheMisses());
+
+        facade.calculate(new CategoryExpenseStrategy("Food"), expenses, 1);
+        facade.calculate(new CategoryExpenseStrategy("Transport"), expenses, 1);
+        // The total was least recently used and made room for Transport
+        facade.calculate(new TotalExpenseStrategy(), expenses, 1);
+        assertEquals(0, facade.getCacheHits());
+        assertEquals(5, facade.getCacheMisses());
+    }
+
+    // Test 3: calculateAll serves hits from the cache and computes only the misses
+    @Test
+    public void testCalculateAllMixesHitsAndMisses() {
+        ExpenseCalculationStrategy total = new TotalExpenseStrategy();
+        ExpenseCalculationStrategy day = new DailyExpenseStrategy("2025-08-03");
+        facade.calculate(total, expenses, 1);
+
+        Map<ExpenseCalculationStrategy, Long> totals = facade.calculateAll(expenses, Arrays.asList(day, total), 1);
+
+        assertEquals(Arrays.asList(day, total), new ArrayList<>(totals.keySet()));
+        assertEquals(1750L, (long) totals.get(day));
+        assertEquals(1975L, (long) totals.get(total));
+        assertEquals(1, facade.getCacheHits());
+        assertEquals(2, facade.getCacheMisses());
+    }
+}
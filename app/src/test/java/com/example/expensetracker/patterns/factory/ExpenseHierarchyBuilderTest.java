@@ -0,0 +1,78 @@
+package com.example.expensetracker.patterns.factory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.patterns.composite.ExpenseComponent;
+import com.example.expensetracker.patterns.composite.SingleExpense;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ExpenseHierarchyBuilderTest {
+
+    private List<Expense> expenses;
+
+    @Before
+    public void setUp() {
+        expenses = new ArrayList<>();
+        expenses.add(Expense.of("coffee", "Coffee", 5.50, "Food", "08/03/2025"));
+        expenses.add(Expense.of("lunch", "Lunch", 12.00, "food", "08/20/2025"));
+        expenses.add(Expense.of("bus", "Bus", 2.25, "Transport", "09/01/2025"));
+        expenses.add(Expense.of("rent", "Rent", 900.00, "Rent", "12/01/2024"));
+        expenses.add(Expense.of("old", "Receipt", 1.00, "Food", "someday"));
+    }
+
+    // Test 1: year -> month -> category -> expense, with subtotals at every level
+    @Test
+    public void testYearMonthCategoryLevels() {
+        LazyExpenseGroup root = new ConcreteExpenseFactory().hierarchyBuilder()
+                .groupBy(ExpenseGrouping.YEAR)
+                .groupBy(ExpenseGrouping.MONTH)
+                .groupBy(ExpenseGrouping.CATEGORY)
+                .build("All", expenses);
+
+        assertEquals(92075, root.getAmountCents());
+        assertEquals(5, root.getCount());
+        List<ExpenseComponent> years = root.getChildren();
+        assertEquals(3, years.size());
+        assertEquals("Undated", years.get(0).getTitle());
+        assertEquals("2024", years.get(1).getTitle());
+        assertEquals("2025", years.get(2).getTitle());
+        assertEquals(1975, years.get(2).getAmountCents());
+
+        ExpenseComponent august = years.get(2).getChildren().get(0);
+        assertEquals("2025-08", august.getTitle());
+        List<ExpenseComponent> categories = august.getChildren();
+        assertEquals("Case-insensitive categories share a group", 1, categories.size());
+        assertEquals(2, categories.get(0).getCount());
+        assertTrue(categories.get(0).getChildren().get(0) instanceof SingleExpense);
+    }
+
+    // Test 2: only the nodes that are opened get built
+    @Test
+    public void testChildrenBuiltOnExpand() {
+        LazyExpenseGroup root = new ConcreteExpenseFactory().hierarchyBuilder()
+                .groupBy(ExpenseGrouping.CATEGORY)
+                .groupBy(ExpenseGrouping.DESCRIPTION)
+                .build("All", expenses);
+        assertFalse(root.isExpanded());
+
+        List<ExpenseComponent> categories = root.getChildren();
+        assertTrue(root.isExpanded());
+        LazyExpenseGroup food = (LazyExpenseGroup) categories.get(0);
+        LazyExpenseGroup transport = (LazyExpenseGroup) categories.get(1);
+        assertEquals(1850, food.getAmountCents());
+        assertFalse(food.isExpanded());
+
+        assertEquals(3, food.getChildren().size());
+        assertTrue(food.isExpanded());
+        assertFalse(transport.isExpanded());
+        assertTrue(food.getChildren() == food.getChildren());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.expensetracker.patterns.iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import com.example.expensetracker.analytics.ExpenseColumns;
+import com.example.expensetracker.data.EpochDays;
+import com.example.expensetracker.model.Expense;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+public class ColumnarExpenseIteratorTest {
+
+    private List<Expense> expenses;
+    private ExpenseColumns columns;
+
+    @Before
+    public void setUp() {
+        expenses = new ArrayList<>();
+        expenses.add(Expense.of("coffee", "Coffee", 5.50, "Food", "08/03/2025"));
+        expenses.add(Expense.of("bus", "Bus", 2.25, "Transport", "08/04/2025"));
+        expenses.add(Expense.of("lunch", "Lunch", 12.00, "food", "08/20/2025"));
+        expenses.add(Expense.of("old", "Receipt", 1.00, "Food", "someday"));
+        columns = ExpenseColumns.of(expenses);
+    }
+
+    // Test 1: the unfiltered stream matches the list, object for object and cent for cent
+    @Test
+    public void testMatchesListIterator() {
+        ExpenseIterator list = new ExpenseListIterator(expenses);
+        ExpenseIterator columnar = new ColumnarExpenseIterator(columns);
+        while (list.hasNext()) {
+            assertSame(list.next(), columnar.next());
+        }
+        assertFalse(columnar.hasNext());
+
+        ExpenseIterator amounts = new ColumnarExpenseIterator(columns);
+        long total = 0;
+        while (amounts.hasNext()) total += amounts.nextAmountCents();
+        assertEquals(2075, total);
+    }
+
+    // Test 2: category and date filters are applied to the columns
+    @Test
+    public void testFilterPushdown() {
+        ExpenseFilter food = ExpenseFilter.ALL.inCategory("FOOD");
+        ExpenseIterator iterator = new ColumnarExpenseIterator(columns, food.between(EpochDays.of(2025, 8, 1), EpochDays.of(2025, 8, 31)));
+        assertEquals(EpochDays.of(2025, 8, 3), iterator.nextEpochDay());
+        assertEquals(EpochDays.of(2025, 8, 20), iterator.nextEpochDay());
+        assertFalse("Undated rows never fall in a range", iterator.hasNext());
+
+        assertEquals(3, count(new ColumnarExpenseIterator(columns, food)));
+        assertEquals(0, count(new ColumnarExpenseIterator(columns, ExpenseFilter.ALL.inCategory("Travel"))));
+        assertEquals(0, count(new ColumnarExpenseIterator(columns,
+                ExpenseFilter.ALL.between(EpochDays.of(2026, 1, 1), EpochDays.of(2026, 12, 31)))));
+        try {
+            iterator.nextAmountCents();
+            fail("Expected NoSuchElementException");
+        } catch (NoSuchElementException expected) {
+        }
+    }
+
+    // Test 3: rows built from values stream their columns but have no object
+    @Test
+    public void testValueRowsHaveNoObject() {
+        ExpenseColumns values = new ExpenseColumns();
+        values.add(1999, "Food", EpochDays.of(2025, 8, 3));
+        assertEquals(1999, new ColumnarExpenseIterator(values).nextAmountCents());
+        try {
+            new ColumnarExpenseIterator(values).next();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    // Test 4: both iterators fail fast when their source changes under them
+    @Test
+    public void testFailFastOnModification() {
+        ExpenseIterator columnar = new ColumnarExpenseIterator(columns);
+        columnar.nextAmountCents();
+        columns.add(expenses.get(0));
+        try {
+            columnar.nextAmountCents();
+            fail("Expected ConcurrentModificationException");
+        } catch (ConcurrentModificationException expected) {
+        }
+
+        ExpenseIterator list = new ExpenseListIterator(expenses);
+        list.next();
+        expenses.clear();
+        try {
+            list.next();
+            fail("Expected ConcurrentModificationException");
+        } catch (ConcurrentModificationException expected) {
+        }
+    }
+
+    private static int count(ExpenseIterator iterator) {
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.nextCategoryId();
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.expensetracker.patterns.observer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.example.expensetracker.model.Expense;
+
+import org.junit.Test;
+
+public class ExpenseChangeSetTest {
+
+    private static Expense expense(String id, double amount) {
+        return Expense.of(id, "Coffee", amount, "Food", "2025-08-03");
+    }
+
+    // Test 1: changes are keyed by expense ID and tagged with the version they bring observers to
+    @Test
+    public void testChangesAreKeyedAndVersioned() {
+        ExpenseChangeSet changes = new ExpenseChangeSet.Builder()
+                .insert(expense("a", 3.50))
+                .update(expense("b", 4.00))
+                .remove("c")
+                .move("d", null)
+                .build(7);
+
+        assertEquals(7, changes.getVersion());
+        assertEquals(350, changes.getInserted().get("a").getAmountCents());
+        assertEquals(400, changes.getUpdated().get("b").getAmountCents());
+        assertTrue(changes.getRemoved().contains("c"));
+        assertTrue(changes.getMoved().containsKey("d"));
+        assertNull(changes.getMoved().get("d"));
+        assertEquals(4, changes.size());
+    }
+
+    // Test 2: repeated changes to one ID fold into their net effect
+    @Test
+    public void testRepeatedChangesFold() {
+        ExpenseChangeSet changes = new ExpenseChangeSet.Builder()
+                .insert(expense("a", 3.50))
+                .update(expense("a", 4.00))
+                .insert(expense("b", 12.00))
+                .remove("b")
+                .remove("c")
+                .insert(expense("c", 5.00))
+                .build(1);
+
+        assertEquals(400, changes.getInserted().get("a").getAmountCents());
+        assertEquals(500, changes.getUpdated().get("c").getAmountCents());
+        assertEquals(2, changes.size());
+    }
+
+    // Test 3: merging a later set keeps the latest value of each expense
+    @Test
+    public void testAddAllMergesLaterSet() {
+        ExpenseChangeSet.Builder pending = new ExpenseChangeSet.Builder().insert(expense("a", 3.50));
+        ExpenseChangeSet later = new ExpenseChangeSet.Builder()
+                .update(expense("a", 4.50))
+                .remove("b")
+                .build(2);
+
+        ExpenseChangeSet merged = pending.addAll(later).build(2);
+
+        assertEquals(450, merged.getInserted().get("a").getAmountCents());
+        assertTrue(merged.getRemoved().contains("b"));
+        assertTrue(new ExpenseChangeSet.Builder().insert(expense("x", 1.00)).remove("x").isEmpty());
+    }
+}
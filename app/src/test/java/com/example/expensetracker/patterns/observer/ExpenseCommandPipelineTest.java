@@ -0,0 +1,137 @@
+package com.example.expensetracker.patterns.observer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.example.expensetracker.data.InMemoryExpenseStore;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.patterns.command.AddExpenseCommand;
+import com.example.expensetracker.patterns.command.CommandInvoker;
+import com.example.expensetracker.patterns.command.EditExpenseCommand;
+import com.example.expensetracker.patterns.command.ExpenseReceiver;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+
+/**
+ * CommandInvoker's asynchronous pipeline against a real repository. The worker
+ * and main thread are queues run by hand, so each hop is visible to the test.
+ */
+public class ExpenseCommandPipelineTest {
+
+    private final ArrayDeque<Runnable> workerTasks = new ArrayDeque<>();
+    private final ArrayDeque<Runnable> mainTasks = new ArrayDeque<>();
+    private ExpenseRepositoryTest.FakeExpenseBackend backend;
+    private ExpenseRepository repository;
+    private ExpenseReceiver receiver;
+    private CommandInvoker invoker;
+
+    @Before
+    public void setUp() {
+        backend = new ExpenseRepositoryTest.FakeExpenseBackend();
+        backend.remote.put("a", expense("a", "Coffee", 3.50));
+        backend.remote.put("b", expense("b", "Lunch", 12.00));
+        repository = new ExpenseRepository(Runnable::run, Runnable::run, ExpenseRepository.DEFAULT_PAGE_SIZE);
+        repository.open(new InMemoryExpenseStore(), backend);
+        receiver = new ExpenseReceiver(repository);
+        invoker = new CommandInvoker(receiver, workerTasks::add, mainTasks::add, 3);
+    }
+
+    private static Expense expense(String id, String description, double amount) {
+        return Expense.of(id, description, amount, "Food", "2025-08-03");
+    }
+
+    private void runAll() {
+        while (!workerTasks.isEmpty() || !mainTasks.isEmpty()) {
+            if (!workerTasks.isEmpty()) workerTasks.poll().run();
+            if (!mainTasks.isEmpty()) mainTasks.poll().run();
+        }
+    }
+
+    // Test 1: rapid edits of one expense are merged into a single write, off the main thread
+    @Test
+    public void testConsecutiveEditsAreMerged() {
+        invoker.submit(new EditExpenseCommand(receiver, expense("a", "Coffee", 4.00)));
+        invoker.submit(new EditExpenseCommand(receiver, expense("a", "Coffee", 4.50)));
+        invoker.submit(new EditExpenseCommand(receiver, expense("a", "Coffee", 5.00)));
+
+        assertEquals("Nothing is written until the worker runs", 3.50, repository.getExpense("a").getAmount(), 0.001);
+        assertEquals(1, workerTasks.size());
+
+        runAll();
+
+        assertEquals(1, backend.batchCalls);
+        assertEquals(2, invoker.getMergedCount());
+        assertEquals(5.00, backend.remote.get("a").getAmount(), 0.001);
+    }
+
+    // Test 2: undo and redo restore the recorded before/after values, including for adds
+    @Test
+    public void testUndoRedo() {
+        invoker.submit(new EditExpenseCommand(receiver, expense("a", "Coffee", 4.00)));
+        AddExpenseCommand add = new AddExpenseCommand(receiver, expense(receiver.newExpenseId(), "Taxi", 20.00));
+        invoker.submit(add);
+        runAll();
+        assertEquals(20.00, repository.getExpense(add.getExpenseId()).getAmount(), 0.001);
+
+        assertTrue(invoker.undo());
+        runAll();
+        assertNull(repository.getExpense(add.getExpenseId()));
+
+        assertTrue(invoker.undo());
+        runAll();
+        assertEquals(3.50, repository.getExpense("a").getAmount(), 0.001);
+
+        assertTrue(invoker.redo());
+        runAll();
+        assertEquals(4.00, repository.getExpense("a").getAmount(), 0.001);
+        assertTrue(invoker.canRedo());
+    }
+
+    // Test 3: the history is a ring buffer, and undo sees values still pending on the worker
+    @Test
+    public void testHistoryIsBoundedAndTracksPendingValues() {
+        invoker.submit(new EditExpenseCommand(receiver, expense("a", "Coffee", 4.00)));
+        invoker.submit(new EditExpenseCommand(receiver, expense("b", "Lunch", 13.00)));
+        invoker.submit(new EditExpenseCommand(receiver, expense("a", "Coffee", 6.00)));
+        invoker.submit(new EditExpenseCommand(receiver, expense("b", "Lunch", 14.00)));
+        runAll();
+
+        assertTrue(invoker.undo());
+        assertTrue(invoker.undo());
+        runAll();
+        // The second edit of "a" recorded 4.00 as its before value, although it was still pending
+        assertEquals(4.00, repository.getExpense("a").getAmount(), 0.001);
+        assertEquals(13.00, repository.getExpense("b").getAmount(), 0.001);
+
+        assertTrue(invoker.undo());
+        assertFalse("Capacity 3: the first edit was overwritten", invoker.undo());
+        runAll();
+        assertEquals(12.00, repository.getExpense("b").getAmount(), 0.001);
+        assertEquals(4.00, repository.getExpense("a").getAmount(), 0.001);
+    }
+
+    // Test 4: the main thread only updates the model; the backend write is queued on the I/O executor
+    @Test
+    public void testBatchIsSentOffTheMainThread() {
+        ArrayDeque<Runnable> ioTasks = new ArrayDeque<>();
+        ExpenseRepository offMain = new ExpenseRepository(ioTasks::add, Runnable::run, ExpenseRepository.DEFAULT_PAGE_SIZE);
+        offMain.open(new InMemoryExpenseStore(), backend);
+        while (!ioTasks.isEmpty()) ioTasks.poll().run();
+        ExpenseReceiver offMainReceiver = new ExpenseReceiver(offMain);
+        CommandInvoker offMainInvoker = new CommandInvoker(offMainReceiver, workerTasks::add, mainTasks::add, 3);
+
+        offMainInvoker.submit(new EditExpenseCommand(offMainReceiver, expense("a", "Coffee", 4.00)));
+        runAll();
+        assertEquals(4.00, offMain.getExpense("a").getAmount(), 0.001);
+        assertEquals(0, backend.batchCalls);
+
+        while (!ioTasks.isEmpty()) ioTasks.poll().run();
+        assertEquals(1, backend.batchCalls);
+        assertEquals(4.00, backend.remote.get("a").getAmount(), 0.001);
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.expensetracker.patterns.observer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.example.expensetracker.data.InMemoryExpenseStore;
+import com.example.expensetracker.model.Expense;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ExpenseRepositoryConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 200;
+
+    // Stands in for the Android main thread
+    private ExecutorService main;
+    private final AtomicReference<Thread> mainThread = new AtomicReference<>();
+    private ExpenseRepository repository;
+    // Held here because the repository only holds observers weakly
+    private ExpenseChangeObserver orderChecker;
+
+    @Before
+    public void setUp() {
+        main = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "main");
+            mainThread.set(thread);
+            return thread;
+        });
+        repository = new ExpenseRepository(Runnable::run, main, ExpenseRepository.DEFAULT_PAGE_SIZE,
+                () -> Thread.currentThread() == mainThread.get());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        main.shutdown();
+        main.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private <T> T onMain(Callable<T> read) throws Exception {
+        return main.submit(read).get(5, TimeUnit.SECONDS);
+    }
+
+    // Fails if a worker is still running after the timeout, and rethrows the first worker failure
+    private static void runConcurrently(int threads, Runnable task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run();
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join(10_000);
+            assertFalse("Worker still running: " + worker.getName(), worker.isAlive());
+        }
+        Throwable error = failure.get();
+        if (error instanceof Exception) throw (Exception) error;
+        if (error instanceof Error) throw (Error) error;
+    }
+
+    // Test 1: writes and (un)registrations from many threads all land on the main thread, in order
+    @Test
+    public void testConcurrentWritesAndRegistrations() throws Exception {
+        repository.open(new InMemoryExpenseStore(), new ExpenseRepositoryTest.FakeExpenseBackend());
+        AtomicInteger offMainCallbacks = new AtomicInteger();
+        AtomicInteger outOfOrder = new AtomicInteger();
+        AtomicInteger inserted = new AtomicInteger();
+        long[] lastVersion = {0};
+        orderChecker = changes -> {
+            if (Thread.currentThread() != mainThread.get()) offMainCallbacks.incrementAndGet();
+            if (changes.getVersion() <= lastVersion[0]) outOfOrder.incrementAndGet();
+            lastVersion[0] = changes.getVersion();
+            inserted.addAndGet(changes.getInserted().size());
+        };
+        repository.addChangeObserver(orderChecker);
+
+        AtomicInteger nextThread = new AtomicInteger();
+        List<AtomicInteger> transientCalls = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) transientCalls.add(new AtomicInteger());
+        runConcurrently(THREADS, () -> {
+            int thread = nextThread.getAndIncrement();
+            AtomicInteger calls = transientCalls.get(thread);
+            for (int i = 0; i < ROUNDS; i++) {
+                ExpenseChangeObserver observer = changes -> {
+                    if (Thread.currentThread() != mainThread.get()) offMainCallbacks.incrementAndGet();
+                    calls.incrementAndGet();
+                };
+                ExpenseObserver listObserver = expenses -> { };
+                repository.addChangeObserver(observer);
+                repository.addObserver(listObserver);
+                repository.addExpense(Expense.of(thread + "-" + i, "Coffee", 1.25, "Food", "2025-08-03"), null);
+                repository.removeObserver(listObserver);
+                repository.removeChangeObserver(observer);
+            }
+        });
+
+        int expected = THREADS * ROUNDS;
+        assertEquals(1, (int) onMain(repository::getObserverCount));
+        assertEquals(expected, (int) onMain(() -> repository.getExpenses().size()));
+        assertEquals(expected * 125L, (long) onMain(() -> repository.getRunningTotals().getTotalCents()));
+        assertEquals(expected, inserted.get());
+        assertEquals(0, offMainCallbacks.get());
+        assertEquals(0, outOfOrder.get());
+
+        // Every transient observer is gone: one more write reaches none of them
+        int[] before = new int[THREADS];
+        for (int t = 0; t < THREADS; t++) before[t] = transientCalls.get(t).get();
+        repository.addExpense(Expense.of("last", "Tea", 2.00, "Food", "2025-08-03"), null);
+        onMain(() -> null);
+        for (int t = 0; t < THREADS; t++) {
+            assertEquals(before[t], transientCalls.get(t).get());
+        }
+    }
+
+    // Test 2: reads from other threads see the model as of the main thread, including their own writes
+    @Test
+    public void testReadsFromOtherThreads() throws Exception {
+        repository.open(new InMemoryExpenseStore(), new ExpenseRepositoryTest.FakeExpenseBackend());
+        AtomicInteger nextThread = new AtomicInteger();
+        runConcurrently(THREADS, () -> {
+            int thread = nextThread.getAndIncrement();
+            long lastVersion = 0;
+            for (int i = 0; i < ROUNDS; i++) {
+                String id = thread + "-" + i;
+                repository.addExpense(Expense.of(id, "Coffee", 1.25, "Food", "2025-08-03"), null);
+                // The write was queued on the main thread first, so the read comes after it
+                assertNotNull(repository.getExpense(id));
+                ExpenseSnapshot snapshot = repository.getSnapshot();
+                assertTrue(snapshot.getVersion() >= lastVersion);
+                assertTrue(snapshot.getExpenses().size() >= i + 1);
+                lastVersion = snapshot.getVersion();
+                assertTrue(repository.getVersion() >= lastVersion);
+                assertNotNull(repository.getPageCursor());
+                repository.loadOlderExpenses();
+            }
+        });
+
+        assertEquals(THREADS * ROUNDS, repository.getSnapshot().getExpenses().size());
+        assertEquals(THREADS * ROUNDS, repository.getVersion());
+    }
+
+    // Test 3: racing getInstance() calls all see one instance
+    @Test
+    public void testGetInstanceIsShared() throws Exception {
+        ExpenseRepository.resetInstance();
+        List<ExpenseRepository> seen = new ArrayList<>();
+        runConcurrently(THREADS, () -> {
+            ExpenseRepository current = ExpenseRepository.getInstance();
+            synchronized (seen) {
+                seen.add(current);
+            }
+        });
+
+        assertEquals(THREADS, seen.size());
+        for (ExpenseRepository current : seen) {
+            assertSame(seen.get(0), current);
+        }
+        ExpenseRepository.resetInstance();
+        assertTrue(ExpenseRepository.getInstance() != seen.get(0));
+        ExpenseRepository.resetInstance();
+    }
+}
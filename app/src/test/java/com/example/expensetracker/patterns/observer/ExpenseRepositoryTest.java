@@ -0,0 +1,551 @@
+package com.example.expensetracker.patterns.observer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.example.expensetracker.data.ExpenseBackend;
+import com.example.expensetracker.data.ExpenseWriteBatch;
+import com.example.expensetracker.data.InMemoryExpenseStore;
+import com.example.expensetracker.model.Expense;
+import com.example.expensetracker.patterns.command.AddExpenseCommand;
+import com.example.expensetracker.patterns.command.CommandInvoker;
+import com.example.expensetracker.patterns.command.DeleteExpenseCommand;
+import com.example.expensetracker.patterns.command.EditExpenseCommand;
+import com.example.expensetracker.patterns.command.ExpenseReceiver;
+import com.example.expensetracker.patterns.iterator.ExpenseIterator;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+public class ExpenseRepositoryTest {
+
+    private InMemoryExpenseStore store;
+    private FakeExpenseBackend backend;
+    private ExpenseRepository repository;
+    private final List<ExpenseChangeSet> received = new ArrayList<>();
+    // The repository holds observers weakly; fields keep these registered
+    private final ExpenseChangeObserver recorder = received::add;
+    private ExpenseChangeObserver snapshotReader;
+
+    @Before
+    public void setUp() {
+        store = new InMemoryExpenseStore();
+        backend = new FakeExpenseBackend();
+        // Run I/O and "main thread" work inline so the test is deterministic
+        repository = new ExpenseRepository(Runnable::run, Runnable::run, ExpenseRepository.DEFAULT_PAGE_SIZE);
+        repository.addChangeObserver(recorder);
+    }
+
+    private static Expense expense(String id, String description, double amount) {
+        return Expense.of(id, description, amount, "Food", "2025-08-03");
+    }
+
+    // Test 1: the local copy is rendered before the backend delivers anything
+    @Test
+    public void testRendersFromLocalStoreBeforeBackendSync() {
+        store.put(expense("a", "Coffee", 3.50));
+        backend.holdInitialSync = true;
+
+        repository.open(store, backend);
+
+        assertEquals(1, repository.getExpenses().size());
+        assertEquals(1, received.size());
+        assertTrue(received.get(0).getInserted().containsKey("a"));
+    }
+
+    // Test 2: re-delivering what we already have produces no change set
+    @Test
+    public void testUnchangedRemoteCopyIsNotRenotified() {
+        store.put(expense("a", "Coffee", 3.50));
+        backend.remote.put("a", expense("a", "Coffee", 3.50));
+
+        repository.open(store, backend);
+
+        assertEquals("Only the local load should notify", 1, received.size());
+    }
+
+    // Test 3: remote edits are reconciled into the model and the store
+    @Test
+    public void testRemoteChangeIsReconciledIntoStore() {
+        store.put(expense("a", "Coffee", 3.50));
+        backend.remote.put("a", expense("a", "Coffee", 4.00));
+
+        repository.open(store, backend);
+
+        assertEquals(4.00, repository.getExpense("a").getAmount(), 0.001);
+        assertEquals(4.00, store.loadAll().get("a").getAmount(), 0.001);
+        assertTrue(received.get(received.size() - 1).getUpdated().containsKey("a"));
+    }
+
+    // Test 4: local copies of expenses deleted elsewhere are dropped after the initial sync
+    @Test
+    public void testStaleLocalExpenseIsRemovedAfterInitialSync() {
+        store.put(expense("stale", "Old", 1.00));
+        backend.remote.put("b", expense("b", "Lunch", 12.00));
+        // Reading between change sets must not leave a stale snapshot behind
+        snapshotReader = changes -> repository.getSnapshot();
+        repository.addChangeObserver(snapshotReader);
+
+        repository.open(store, backend);
+
+        assertNull(repository.getExpense("stale"));
+        assertNotNull(repository.getExpense("b"));
+        assertEquals(1, repository.getSnapshot().size());
+        assertFalse(store.loadAll().containsKey("stale"));
+    }
+
+    // Test 5: writes are applied locally and persisted even before the backend answers
+    @Test
+    public void testAddIsAppliedLocallyBeforeBackendConfirms() {
+        repository.open(store, backend);
+        backend.holdWrites = true;
+
+        repository.addExpense(expense(repository.newExpenseId(), "Taxi", 20.00), null);
+
+        assertEquals(1, repository.getExpenses().size());
+        assertEquals(1, store.loadAll().size());
+    }
+
+    // Test 6: a rejected write is rolled back
+    @Test
+    public void testRejectedDeleteIsRolledBack() {
+        backend.remote.put("a", expense("a", "Coffee", 3.50));
+        repository.open(store, backend);
+        backend.failWrites = true;
+        Exception[] result = new Exception[1];
+
+        repository.deleteExpense("a", error -> result[0] = error);
+
+        assertNotNull(result[0]);
+        assertNotNull(repository.getExpense("a"));
+        assertTrue(store.loadAll().containsKey("a"));
+    }
+
+    // Test 7: versions only move forward
+    @Test
+    public void testChangeSetVersionsIncrease() {
+        repository.open(store, backend);
+        repository.addExpense(expense(repository.newExpenseId(), "Taxi", 20.00), null);
+        repository.addExpense(expense(repository.newExpenseId(), "Bus", 2.00), null);
+
+        long previous = 0;
+        for (ExpenseChangeSet changes : received) {
+            assertTrue(changes.getVersion() > previous);
+            previous = changes.getVersion();
+        }
+        assertEquals(previous, repository.getVersion());
+    }
+
+    // Test 8: running totals follow adds, edits and deletes without a rescan
+    @Test
+    public void testRunningTotalsFollowMutations() {
+        repository.open(store, backend);
+        String coffeeId = repository.newExpenseId();
+        repository.addExpense(Expense.of(coffeeId, "Coffee", 3.50, "Food", "08/03/2025"), null);
+        repository.addExpense(Expense.of(repository.newExpenseId(), "Bus", 2.00, "Transport", "08/03/2025"), null);
+
+        repository.updateExpense(Expense.of(coffeeId, "Coffee", 5.00, "Food", "09/01/2025"), null);
+
+        assertEquals(700, repository.getRunningTotals().getTotalCents());
+        assertEquals(500, repository.getRunningTotals().getCategoryTotalCents("food"));
+        assertEquals(200, repository.getRunningTotals().getMonthTotalCents(2025, 8));
+        assertEquals(500, repository.getRunningTotals().getMonthTotalCents(2025, 9));
+
+        repository.deleteExpense(coffeeId, null);
+
+        assertEquals(200, repository.getRunningTotals().getTotalCents());
+        assertEquals(0, repository.getRunningTotals().getCategoryTotalCents("Food"));
+        assertEquals(1, repository.getRunningTotals().getCount());
+    }
+
+    // Test 9: history is paged in newest first, and each page reconciles only its own key range
+    @Test
+    public void testOlderPagesLoadOnRequest() {
+        repository = new ExpenseRepository(Runnable::run, Runnable::run, 2);
+        for (int i = 1; i <= 5; i++) {
+            backend.remote.put("k" + i, expense("k" + i, "Item " + i, i));
+        }
+        store.put(expense("k2x", "Deleted elsewhere", 9.00));
+
+        repository.open(store, backend);
+
+        assertNotNull(repository.getExpense("k5"));
+        assertNotNull(repository.getExpense("k4"));
+        assertNull(repository.getExpense("k3"));
+        assertNotNull("Outside the loaded range, so not reconciled yet", repository.getExpense("k2x"));
+        assertEquals("k4", repository.getPageCursor().getOldestLoadedKey());
+        assertTrue(repository.getPageCursor().hasMore());
+
+        assertTrue(repository.loadOlderExpenses());
+        assertNotNull(repository.getExpense("k3"));
+        assertNotNull(repository.getExpense("k2"));
+        assertNull(repository.getExpense("k2x"));
+        assertEquals("k2", repository.getPageCursor().getOldestLoadedKey());
+
+        assertTrue(repository.loadOlderExpenses());
+        assertNotNull(repository.getExpense("k1"));
+        assertFalse(repository.getPageCursor().hasMore());
+        assertFalse(repository.loadOlderExpenses());
+        assertEquals(1500, repository.getRunningTotals().getTotalCents());
+    }
+
+    // Test 10: queued commands coalesce per ID and go out as one round-trip and one change set
+    @Test
+    public void testQueuedCommandsFlushAsOneBatch() {
+        backend.remote.put("a", expense("a", "Coffee", 3.50));
+        backend.remote.put("b", expense("b", "Lunch", 12.00));
+        repository.open(store, backend);
+        int changeSetsBefore = received.size();
+        ExpenseReceiver receiver = new ExpenseReceiver(repository);
+        CommandInvoker invoker = new CommandInvoker();
+
+        invoker.queueCommand(new EditExpenseCommand(receiver, expense("a", "Coffee", 4.00)));
+        invoker.queueCommand(new EditExpenseCommand(receiver, expense("a", "Coffee", 4.50)));
+        invoker.queueCommand(new DeleteExpenseCommand(receiver, "b"));
+        invoker.queueCommand(new AddExpenseCommand(receiver, expense(receiver.newExpenseId(), "Taxi", 20.00)));
+        List<ExpenseWriteBatch.Result> results = new ArrayList<>();
+        invoker.flush(receiver, results::addAll);
+
+        assertEquals(1, backend.batchCalls);
+        assertEquals(changeSetsBefore + 1, received.size());
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isSuccessful());
+        assertTrue(results.get(1).isDelete());
+        assertEquals(4.50, backend.remote.get("a").getAmount(), 0.001);
+        assertFalse(backend.remote.containsKey("b"));
+        assertEquals(2450, repository.getRunningTotals().getTotalCents());
+        assertEquals(0, invoker.getQueuedCount());
+        assertEquals(0, receiver.getPendingCount());
+    }
+
+    // Test 11: a rejected batch is rolled back as a whole and every item reports the error
+    @Test
+    public void testRejectedBatchIsRolledBack() {
+        backend.remote.put("a", expense("a", "Coffee", 3.50));
+        repository.open(store, backend);
+        backend.failWrites = true;
+        List<ExpenseWriteBatch.Result> results = new ArrayList<>();
+
+        repository.applyBatch(new ExpenseWriteBatch()
+                .put(expense("a", "Coffee", 9.00))
+                .put(expense("new", "Taxi", 20.00)), results::addAll);
+
+        assertEquals(2, results.size());
+        assertFalse(results.get(0).isSuccessful());
+        assertNotNull(results.get(1).getError());
+        assertEquals(3.50, repository.getExpense("a").getAmount(), 0.001);
+        assertNull(repository.getExpense("new"));
+        assertFalse(store.loadAll().containsKey("new"));
+        assertEquals(350, repository.getRunningTotals().getTotalCents());
+    }
+
+    // Test 12: snapshots are shared between changes and never change afterwards
+    @Test
+    public void testSnapshotsAreCopyOnWrite() {
+        backend.remote.put("a", expense("a", "Coffee", 3.50));
+        repository.open(store, backend);
+
+        ExpenseSnapshot before = repository.getSnapshot();
+        assertSame(before, repository.getSnapshot());
+        assertEquals(repository.getVersion(), before.getVersion());
+        ExpenseIterator iterator = before.iterator();
+
+        repository.addExpense(expense("b", "Taxi", 20.00), null);
+        repository.deleteExpense("a", null);
+
+        assertEquals(1, before.size());
+        assertEquals("a", iterator.next().getId());
+        assertFalse(iterator.hasNext());
+        ExpenseSnapshot after = repository.getSnapshot();
+        assertNotSame(before, after);
+        assertEquals("b", after.getExpenses().get(0).getId());
+        try {
+            after.getExpenses().clear();
+            fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException expected) {
+        }
+
+        repository.close();
+        assertEquals(0, repository.getSnapshot().size());
+    }
+
+    // Test 13: an observer nobody unregistered is dropped once it is collected.
+    // Collection can't be forced, so the test is skipped if it doesn't happen in
+    // time; WeakObserverListTest covers the same path deterministically.
+    @Test
+    public void testCollectedObserversArePurged() throws InterruptedException {
+        repository.open(store, backend);
+        assertEquals(1, repository.getObserverCount());
+
+        List<ExpenseChangeSet> leakedReceived = new ArrayList<>();
+        ReferenceQueue<ExpenseChangeObserver> collected = new ReferenceQueue<>();
+        WeakReference<ExpenseChangeObserver> leaked = registerAndForget(leakedReceived, collected);
+        assertEquals(2, repository.getObserverCount());
+
+        System.gc();
+        Assume.assumeTrue("Observer was not collected in time", collected.remove(2_000) == leaked);
+        assertEquals(1, repository.getObserverCount());
+
+        repository.addExpense(expense("a", "Coffee", 3.50), null);
+        assertTrue(leakedReceived.isEmpty());
+        assertEquals(1, received.size());
+    }
+
+    // Test 14: a burst of writes within one window reaches observers as one net change set
+    @Test
+    public void testChangesWithinWindowAreCoalesced() {
+        List<Runnable> scheduled = new ArrayList<>();
+        ExpenseRepository framed = new ExpenseRepository(Runnable::run, Runnable::run,
+                ExpenseRepository.DEFAULT_PAGE_SIZE, () -> true, (action, delayMillis) -> scheduled.add(action));
+        framed.setNotificationWindow(ExpenseRepository.DEFAULT_NOTIFICATION_WINDOW_MILLIS);
+        List<ExpenseChangeSet> framedReceived = new ArrayList<>();
+        ExpenseChangeObserver observer = framedReceived::add;
+        framed.addChangeObserver(observer);
+        framed.open(store, backend);
+
+        framed.addExpense(expense("a", "Coffee", 3.50), null);
+        framed.updateExpense(expense("a", "Coffee", 4.00), null);
+        framed.addExpense(expense("b", "Taxi", 20.00), null);
+        framed.deleteExpense("b", null);
+
+        assertTrue(framedReceived.isEmpty());
+        assertEquals(1, scheduled.size());
+        scheduled.get(0).run();
+
+        assertEquals(1, framedReceived.size());
+        ExpenseChangeSet changes = framedReceived.get(0);
+        assertEquals(framed.getVersion(), changes.getVersion());
+        assertEquals(400, changes.getInserted().get("a").getAmountCents());
+        assertEquals(1, changes.size());
+        assertEquals(1, framed.getDeliveredNotificationCount());
+        assertEquals(3, framed.getMergedNotificationCount());
+
+        // A late subscriber first lets existing observers catch up, then gets its replay
+        framed.deleteExpense("a", null);
+        List<ExpenseChangeSet> lateReceived = new ArrayList<>();
+        ExpenseChangeObserver late = lateReceived::add;
+        framed.addChangeObserver(late);
+        assertEquals(2, framedReceived.size());
+        assertTrue(framedReceived.get(1).getRemoved().contains("a"));
+        assertTrue(lateReceived.isEmpty());
+    }
+
+    // Test 15: a rejected delete-all comes back as one change set
+    @Test
+    public void testRejectedDeleteAllIsRestoredAtOnce() {
+        backend.remote.put("a", expense("a", "Coffee", 3.50));
+        backend.remote.put("b", expense("b", "Lunch", 12.00));
+        repository.open(store, backend);
+        backend.failWrites = true;
+        int before = received.size();
+
+        repository.deleteAllExpenses(null);
+
+        assertEquals(before + 2, received.size());
+        assertEquals(2, received.get(before).getRemoved().size());
+        assertEquals(2, received.get(before + 1).getInserted().size());
+        assertEquals(2, repository.getExpenses().size());
+        assertEquals(1550, repository.getRunningTotals().getTotalCents());
+        assertEquals(2, store.loadAll().size());
+    }
+
+    // Test 16: closing tells observers that the session's expenses are gone
+    @Test
+    public void testCloseNotifiesRemoval() {
+        backend.remote.put("a", expense("a", "Coffee", 3.50));
+        repository.open(store, backend);
+        int before = received.size();
+
+        repository.close();
+
+        assertEquals(before + 1, received.size());
+        ExpenseChangeSet changes = received.get(before);
+        assertTrue(changes.getRemoved().contains("a"));
+        assertEquals(repository.getVersion(), changes.getVersion());
+        assertTrue(repository.getExpenses().isEmpty());
+        assertEquals(0, repository.getRunningTotals().getTotalCents());
+    }
+
+    // Test 17: remote child events patch one expense each, without loading anything again
+    @Test
+    public void testRemoteChildEventsArePatchedIncrementally() {
+        backend.remote.put("a", expense("a", "Coffee", 3.50));
+        backend.remote.put("b", expense("b", "Lunch", 12.00));
+        repository.open(store, backend);
+        int pagesBefore = backend.pagesDelivered;
+        int before = received.size();
+
+        backend.listener.onExpenseUpserted(expense("c", "Taxi", 20.00));
+        backend.listener.onExpenseUpserted(expense("a", "Coffee", 4.00));
+        backend.listener.onExpenseRemoved("b");
+
+        assertEquals(before + 3, received.size());
+        assertEquals(1, received.get(before).size());
+        assertTrue(received.get(before).getInserted().containsKey("c"));
+        assertEquals(1, received.get(before + 1).size());
+        assertEquals(400, received.get(before + 1).getUpdated().get("a").getAmountCents());
+        assertEquals(1, received.get(before + 2).size());
+        assertTrue(received.get(before + 2).getRemoved().contains("b"));
+        assertEquals(pagesBefore, backend.pagesDelivered);
+        assertEquals(2, repository.getExpenses().size());
+        assertEquals(2400, repository.getRunningTotals().getTotalCents());
+    }
+
+    // Test 18: with a notification window, close() still delivers the removal before it returns
+    @Test
+    public void testCloseFlushesRemovalImmediately() {
+        List<Runnable> scheduled = new ArrayList<>();
+        ExpenseRepository framed = new ExpenseRepository(Runnable::run, Runnable::run,
+                ExpenseRepository.DEFAULT_PAGE_SIZE, () -> true, (action, delayMillis) -> scheduled.add(action));
+        framed.setNotificationWindow(ExpenseRepository.DEFAULT_NOTIFICATION_WINDOW_MILLIS);
+        List<ExpenseChangeSet> framedReceived = new ArrayList<>();
+        ExpenseChangeObserver observer = framedReceived::add;
+        framed.addChangeObserver(observer);
+        backend.remote.put("a", expense("a", "Coffee", 3.50));
+        framed.open(store, backend);
+        for (Runnable action : scheduled) action.run();
+        scheduled.clear();
+        int before = framedReceived.size();
+
+        framed.close();
+
+        assertEquals(before + 1, framedReceived.size());
+        assertTrue(framedReceived.get(before).getRemoved().contains("a"));
+        assertEquals(framed.getVersion(), framedReceived.get(before).getVersion());
+        for (Runnable action : scheduled) action.run();
+        assertEquals(before + 1, framedReceived.size());
+    }
+
+    // Registers an observer and returns without keeping it, like a screen that never unregisters
+    private WeakReference<ExpenseChangeObserver> registerAndForget(List<ExpenseChangeSet> sink,
+                                                                   ReferenceQueue<ExpenseChangeObserver> queue) {
+        ExpenseChangeObserver observer = sink::add;
+        repository.addChangeObserver(observer);
+        return new WeakReference<>(observer, queue);
+    }
+
+    /**
+     * In-memory stand-in for FirebaseExpenseBackend. Echoes accepted writes back
+     * through the listener, like the Realtime Database does for local writes.
+     */
+    static class FakeExpenseBackend implements ExpenseBackend {
+        final NavigableMap<String, Expense> remote = new TreeMap<>();
+        boolean holdInitialSync;
+        boolean holdWrites;
+        boolean failWrites;
+        int batchCalls;
+        int pagesDelivered;
+        private Listener listener;
+        private int nextId;
+
+        @Override
+        public void start(int pageSize, Listener listener) {
+            this.listener = listener;
+            if (holdInitialSync) return;
+            deliverPage(remote, null, pageSize);
+        }
+
+        @Override
+        public void loadPageBefore(String endKey, int pageSize) {
+            deliverPage(remote.headMap(endKey, false), endKey, pageSize);
+        }
+
+        // Newest pageSize entries of the range, in key order, like limitToLast()
+        private void deliverPage(NavigableMap<String, Expense> range, String endKey, int pageSize) {
+            pagesDelivered++;
+            Set<String> presentIds = new HashSet<>();
+            String startKey = null;
+            for (Map.Entry<String, Expense> entry : range.descendingMap().entrySet()) {
+                if (presentIds.size() == pageSize) break;
+                presentIds.add(entry.getKey());
+                startKey = entry.getKey();
+            }
+            // Delivered in bulk, like a page decoded off the main thread
+            listener.onExpensesLoaded(new TreeMap<>(range.tailMap(startKey == null ? "" : startKey, true)));
+            listener.onPageLoaded(presentIds.size() == pageSize ? startKey : null, endKey, presentIds);
+        }
+
+        @Override
+        public void stop() {
+            listener = null;
+        }
+
+        @Override
+        public String newExpenseId() {
+            return String.format("id%04d", nextId++);
+        }
+
+        @Override
+        public void put(Expense expense, WriteCallback callback) {
+            if (holdWrites) return;
+            if (failWrites) {
+                callback.onComplete(new IllegalStateException("Permission denied"));
+                return;
+            }
+            remote.put(expense.getId(), expense);
+            if (listener != null) listener.onExpenseUpserted(expense);
+            callback.onComplete(null);
+        }
+
+        @Override
+        public void remove(String expenseId, WriteCallback callback) {
+            if (holdWrites) return;
+            if (failWrites) {
+                callback.onComplete(new IllegalStateException("Permission denied"));
+                return;
+            }
+            remote.remove(expenseId);
+            if (listener != null) listener.onExpenseRemoved(expenseId);
+            callback.onComplete(null);
+        }
+
+        @Override
+        public void applyBatch(ExpenseWriteBatch batch, WriteCallback callback) {
+            batchCalls++;
+            if (holdWrites) return;
+            if (failWrites) {
+                callback.onComplete(new IllegalStateException("Permission denied"));
+                return;
+            }
+            for (Map.Entry<String, Expense> write : batch.getWrites().entrySet()) {
+                if (write.getValue() == null) {
+                    remote.remove(write.getKey());
+                    if (listener != null) listener.onExpenseRemoved(write.getKey());
+                } else {
+                    remote.put(write.getKey(), write.getValue());
+                    if (listener != null) listener.onExpenseUpserted(write.getValue());
+                }
+            }
+            callback.onComplete(null);
+        }
+
+        @Override
+        public void removeAll(WriteCallback callback) {
+            if (failWrites) {
+                callback.onComplete(new IllegalStateException("Permission denied"));
+                return;
+            }
+            for (String expenseId : new ArrayList<>(remote.keySet())) {
+                remove(expenseId, error -> { });
+            }
+            callback.onComplete(null);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.expensetracker.patterns.observer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class WeakObserverListTest {
+
+    // Every reference the list made, so a test can clear one as the collector would
+    private final List<Reference<String>> made = new ArrayList<>();
+    private WeakObserverList<String> list;
+
+    @Before
+    public void setUp() {
+        list = new WeakObserverList<>(observer -> {
+            Reference<String> reference = new WeakReference<>(observer);
+            made.add(reference);
+            return reference;
+        });
+    }
+
+    private static List<String> contents(WeakObserverList<String> list) {
+        List<String> seen = new ArrayList<>();
+        for (String observer : list) {
+            seen.add(observer);
+        }
+        return seen;
+    }
+
+    // Test 1: a cleared observer stops counting at once and is skipped by iteration
+    @Test
+    public void testClearedObserverIsDropped() {
+        String first = "first";
+        String second = "second";
+        list.add(first);
+        list.add(second);
+        assertEquals(2, list.size());
+
+        made.get(0).clear();
+
+        assertEquals(1, list.size());
+        assertEquals(Collections.singletonList(second), contents(list));
+    }
+
+    // Test 2: remove drops one registration at a time, like List.remove(Object)
+    @Test
+    public void testRemoveDropsOneRegistration() {
+        String observer = "observer";
+        list.add(observer);
+        list.add(observer);
+
+        assertTrue(list.remove(observer));
+        assertEquals(1, list.size());
+        assertEquals(Collections.singletonList(observer), contents(list));
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.expensetracker.patterns.strategy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.expensetracker.data.EpochDays;
+import com.example.expensetracker.model.Expense;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+public class ExpenseCalculatorContextTest {
+
+    private static final String[] CATEGORIES = {"Food", "Transport", "Rent", "Fun"};
+
+    private ForkJoinPool pool;
+    private List<Expense> expenses;
+
+    @Before
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+        expenses = new ArrayList<>();
+        int firstDay = EpochDays.of(2025, 1, 1);
+        for (int i = 0; i < 50_000; i++) {
+            expenses.add(new Expense("e" + i, "Item " + i, 1 + (i * 7919L) % 100_000,
+                    CATEGORIES[i % CATEGORIES.length], firstDay + i % 365));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    // Test 1: every strategy gives the sequential total when split across the pool
+    @Test
+    public void testParallelMatchesSequential() {
+        ExpenseCalculationStrategy[] strategies = {
+                new TotalExpenseStrategy(),
+                new CategoryExpenseStrategy("rent"),
+                new DailyExpenseStrategy("03/15/2025")
+        };
+        ExpenseCalculatorContext sequential = new ExpenseCalculatorContext();
+        ExpenseCalculatorContext parallel = new ExpenseCalculatorContext();
+        parallel.setPool(pool);
+        parallel.setParallelThreshold(1000);
+
+        for (ExpenseCalculationStrategy strategy : strategies) {
+            sequential.setStrategy(strategy);
+            parallel.setStrategy(strategy);
+            assertEquals(sequential.executeStrategy(expenses), parallel.executeStrategy(expenses));
+        }
+    }
+
+    // Test 2: small and linked lists stay on the calling thread, large ones fan out
+    @Test
+    public void testThresholdFallsBackToSequential() {
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        ExpenseCalculatorContext context = new ExpenseCalculatorContext();
+        context.setPool(pool);
+        context.setParallelThreshold(1000);
+        context.setStrategy((expense, total) -> {
+            threads.add(Thread.currentThread());
+            total.add(expense.getAmountCents());
+        });
+
+        context.executeStrategy(expenses.subList(0, 1000));
+        context.executeStrategy(new LinkedList<>(expenses));
+        assertEquals(Collections.singleton(Thread.currentThread()), threads);
+
+        threads.clear();
+        context.executeStrategy(expenses);
+        assertTrue(threads.size() > 1 || !threads.contains(Thread.currentThread()));
+    }
+
+    // Test 3: one fused pass gives each strategy its own total, sequential or split
+    @Test
+    public void testFusedStrategiesMatchSeparateRuns() {
+        List<ExpenseCalculationStrategy> strategies = new ArrayList<>();
+        strategies.add(new TotalExpenseStrategy());
+        for (String category : CATEGORIES) {
+            strategies.add(new CategoryExpenseStrategy(category));
+        }
+        strategies.add(new DailyExpenseStrategy("2025-03-15"));
+        strategies.add(new DailyExpenseStrategy("garbage"));
+
+        ExpenseCalculatorContext context = new ExpenseCalculatorContext();
+        Map<ExpenseCalculationStrategy, Long> sequential = context.executeStrategies(strategies, expenses);
+        context.setPool(pool);
+        context.setParallelThreshold(1000);
+        Map<ExpenseCalculationStrategy, Long> parallel = context.executeStrategies(strategies, expenses);
+
+        assertEquals(strategies, new ArrayList<>(sequential.keySet()));
+        long categorySum = 0;
+        for (ExpenseCalculationStrategy strategy : strategies) {
+            long separate = strategy.calculate(expenses);
+            assertEquals(separate, (long) sequential.get(strategy));
+            assertEquals(separate, (long) parallel.get(strategy));
+            if (strategy instanceof CategoryExpenseStrategy) categorySum += separate;
+        }
+        assertEquals((long) sequential.get(strategies.get(0)), categorySum);
+        assertEquals(0L, (long) sequential.get(strategies.get(strategies.size() - 1)));
+    }
+}